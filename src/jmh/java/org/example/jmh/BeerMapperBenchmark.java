@@ -0,0 +1,61 @@
+package org.example.jmh;
+
+import org.example.dto.BeerDTO;
+import org.example.dto.BeerStyle;
+import org.example.entity.Beer;
+import org.example.mapper.BeerMapper;
+import org.example.mapper.BeerMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BeerMapperBenchmark {
+
+    private final BeerMapper beerMapper = new BeerMapperImpl();
+    private Beer beer;
+    private BeerDTO beerDTO;
+
+    @Setup
+    public void setUp() {
+        beer = Beer.builder()
+                .beerId(UUID.randomUUID())
+                .version(3)
+                .beerName("Galaxy IPA")
+                .beerStyle(BeerStyle.PALE_ALE)
+                .upc("0123456789")
+                .quantityOnHand(120)
+                .price(new BigDecimal("12.99"))
+                .createdDate(LocalDateTime.now())
+                .updateDate(LocalDateTime.now())
+                .build();
+        beerDTO = beerMapper.beerToBeerDTO(beer);
+    }
+
+    @Benchmark
+    public BeerDTO beerToBeerDTO() {
+        return beerMapper.beerToBeerDTO(beer);
+    }
+
+    @Benchmark
+    public Beer beerDtoToBeer() {
+        return beerMapper.beerDtoToBeer(beerDTO);
+    }
+}
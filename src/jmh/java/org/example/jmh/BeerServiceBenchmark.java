@@ -0,0 +1,92 @@
+package org.example.jmh;
+
+import org.example.dto.BeerDTO;
+import org.example.dto.BeerStyle;
+import org.example.service.BeerService;
+import org.example.service.impl.BeerServiceJPA;
+import org.example.service.search.BeerNameIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ветки listBeers (без фильтра, имя, стиль, имя и стиль) и построение PageRequest на наполненной H2
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class BeerServiceBenchmark {
+
+    private static final List<String> SORT = List.of("-price", "beerName");
+
+    @Param({"1000", "100000"})
+    public int beers;
+
+    private ConfigurableApplicationContext context;
+    private BeerService beerService;
+    private BeerServiceJPA beerServiceJPA;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seedBeers(context.getBean(JdbcTemplate.class), beers);
+        context.getBean(BeerNameIndex.class).rebuild();
+        beerService = context.getBean(BeerService.class);
+        beerServiceJPA = context.getBean(BeerServiceJPA.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Page<BeerDTO> listAll() {
+        return beerService.listBeers(null, null, false, 1, 25);
+    }
+
+    @Benchmark
+    public Page<BeerDTO> listByName() {
+        return beerService.listBeers("IPA", null, false, 1, 25);
+    }
+
+    @Benchmark
+    public Page<BeerDTO> listByStyle() {
+        return beerService.listBeers(null, BeerStyle.PALE_ALE, false, 1, 25);
+    }
+
+    @Benchmark
+    public Page<BeerDTO> listByNameAndStyle() {
+        return beerService.listBeers("IPA", BeerStyle.PALE_ALE, false, 1, 25);
+    }
+
+    @Benchmark
+    public PageRequest buildPageRequest() {
+        return beerServiceJPA.buildPageRequest(3, 50);
+    }
+
+    @Benchmark
+    public PageRequest buildSortedPageRequest() {
+        return beerServiceJPA.buildPageRequest(3, 50, SORT);
+    }
+}
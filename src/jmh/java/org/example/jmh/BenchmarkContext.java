@@ -0,0 +1,65 @@
+package org.example.jmh;
+
+import org.example.TestCaseApplication;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Приложение без веб-сервера на H2 из профиля test и наполнение таблиц для бенчмарков
+ */
+final class BenchmarkContext {
+
+    static final String[] WORDS = {"Galaxy", "Mango", "Amber", "Stout", "Hazy", "Black", "Citra", "Lager"};
+
+    private static final int BATCH = 10_000;
+
+    private BenchmarkContext() {
+    }
+
+    static ConfigurableApplicationContext start() {
+        return new SpringApplicationBuilder(TestCaseApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN");
+    }
+
+    static void seedBeers(JdbcTemplate jdbcTemplate, int beers) {
+        Random random = new Random(42);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < beers; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + (random.nextBoolean() ? " IPA " : " ") + random.nextInt(1000);
+            batch.add(new Object[]{UUID.randomUUID(), 0, name, 0, String.format("%010d", i),
+                    random.nextInt(500), BigDecimal.valueOf(random.nextInt(2000), 2), now, now});
+            if (batch.size() == BATCH || i == beers - 1) {
+                jdbcTemplate.batchUpdate("insert into \"test-practice\".beer (beer_id, version, beer_name, beer_style, upc, " +
+                        "quantity_on_hand, price, created_date, update_date) values (?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+
+    static void seedEmployees(JdbcTemplate jdbcTemplate, int employees) {
+        List<Object[]> batch = new ArrayList<>(BATCH);
+        for (int i = 0; i < employees; i++) {
+            batch.add(new Object[]{i + 1L, "First" + i, "Last" + i, "employee" + i + "@example.org"});
+            if (batch.size() == BATCH || i == employees - 1) {
+                jdbcTemplate.batchUpdate("insert into \"test-practice\".employees (id, first_name, last_name, email) " +
+                        "values (?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+        // id заданы явно, поэтому пул следующего save должен начаться после них (шаг последовательности 50)
+        jdbcTemplate.execute("alter sequence \"test-practice\".employees_seq restart with " + (employees + 50));
+    }
+}
@@ -0,0 +1,84 @@
+package org.example.jmh;
+
+import org.example.entity.Employee;
+import org.example.exception.NotFoundEmployeeException;
+import org.example.service.EmployeeService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * savedEmployee с новой и с занятой почтой; новая запись откатывается, чтобы таблица не росла между итерациями
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class EmployeeServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    public int employees;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private ConfigurableApplicationContext context;
+    private EmployeeService employeeService;
+    private TransactionTemplate transactionTemplate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        BenchmarkContext.seedEmployees(context.getBean(JdbcTemplate.class), employees);
+        employeeService = context.getBean(EmployeeService.class);
+        transactionTemplate = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Employee saveNew() {
+        Employee employee = employee("new" + sequence.incrementAndGet() + "@example.org");
+        return transactionTemplate.execute(status -> {
+            status.setRollbackOnly();
+            return employeeService.savedEmployee(employee);
+        });
+    }
+
+    @Benchmark
+    public Object saveDuplicate() {
+        try {
+            return employeeService.savedEmployee(employee("employee" + (employees / 2) + "@example.org"));
+        } catch (NotFoundEmployeeException e) {
+            return e;
+        }
+    }
+
+    private static Employee employee(String email) {
+        return Employee.builder()
+                .firstName("Benchmark")
+                .lastName("Employee")
+                .email(email)
+                .build();
+    }
+}
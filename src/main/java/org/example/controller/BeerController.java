@@ -1,27 +1,51 @@
 package org.example.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Positive;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.dto.BeerBulkResultDTO;
+import org.example.dto.BeerCountDTO;
+import org.example.dto.BeerCursorPage;
 import org.example.dto.BeerDTO;
-import org.example.dto.BeerStyle;
+import org.example.dto.BeerFilter;
+import org.example.dto.BeerImportFormat;
+import org.example.dto.BeerImportReport;
+import org.example.dto.BeerInventoryDTO;
+import org.example.dto.BeerStyleFacetDTO;
 import org.example.exception.NotfoundException;
+import org.example.service.BeerExportService;
+import org.example.service.BeerImportService;
+import org.example.service.BeerInventoryService;
 import org.example.service.BeerService;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 @RestController
@@ -30,13 +54,17 @@ import java.util.UUID;
 @RequestMapping("/beer")
 public class BeerController {
     private final BeerService beerService;
+    private final BeerImportService beerImportService;
+    private final BeerExportService beerExportService;
+    private final BeerInventoryService beerInventoryService;
 
     @PutMapping("/{beerId}")
-    public ResponseEntity<BeerDTO> updateBeer(@PathVariable UUID beerId, @RequestBody BeerDTO beer) {
-        if (beerService.updateBeerById(beerId, beer).isEmpty()){
-            throw new NotfoundException();
-        }
-        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    public ResponseEntity<BeerDTO> updateBeer(@PathVariable UUID beerId,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                              @RequestBody BeerDTO beer) {
+        BeerDTO updated = beerService.updateBeerById(beerId, beer, expectedVersion(beerId, ifMatch))
+                .orElseThrow(NotfoundException::new);
+        return ResponseEntity.noContent().eTag(BeerETags.of(updated.getVersion())).build();
     }
 
     @DeleteMapping("/{beerId}")
@@ -47,6 +75,25 @@ public class BeerController {
         return new ResponseEntity<>(HttpStatus.NO_CONTENT);
     }
 
+    @PostMapping("/bulk/delete")
+    public BeerBulkResultDTO deleteBeers(@RequestBody @NotEmpty List<UUID> beerIds) {
+        return new BeerBulkResultDTO(beerService.deleteByIds(beerIds));
+    }
+
+    @PostMapping("/bulk/reprice")
+    public BeerBulkResultDTO repriceBeers(@ModelAttribute BeerFilter filter,
+                                          @RequestParam(defaultValue = "false") boolean all,
+                                          @RequestParam @DecimalMin(value = "-100", inclusive = false) BigDecimal percent) {
+        return new BeerBulkResultDTO(beerService.repriceBeers(filter, all, percent));
+    }
+
+    @PostMapping("/bulk/restock")
+    public BeerBulkResultDTO restockBeers(@ModelAttribute BeerFilter filter,
+                                          @RequestParam(defaultValue = "false") boolean all,
+                                          @RequestParam @Positive int quantity) {
+        return new BeerBulkResultDTO(beerService.restockBeers(filter, all, quantity));
+    }
+
     @PostMapping
     public ResponseEntity<BeerDTO> handlePost(@Validated @RequestBody BeerDTO beer) {
         BeerDTO saved = beerService.saveNewBeer(beer);
@@ -55,25 +102,125 @@ public class BeerController {
         return new ResponseEntity<>(headers, HttpStatus.CREATED);
     }
 
-    @PatchMapping("/{beerId}")
-    public ResponseEntity<BeerDTO> updateBeerPatchById(@PathVariable UUID beerId, @RequestBody BeerDTO beer) {
-        beerService.patchById(beerId, beer);
-        return new ResponseEntity<>(HttpStatus.NO_CONTENT);
+    @PostMapping(value = "/import", consumes = {"application/x-ndjson", "text/csv"})
+    public BeerImportReport importBeers(@RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+                                        @RequestParam(required = false) Integer batchSize,
+                                        InputStream body) throws IOException {
+        BeerImportFormat format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.parseMediaType("text/csv"))
+                ? BeerImportFormat.CSV
+                : BeerImportFormat.NDJSON;
+        return beerImportService.importBeers(body, format, batchSize);
+    }
+
+    @PatchMapping(value = "/{beerId}", consumes = {"application/merge-patch+json", MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<BeerDTO> updateBeerPatchById(@PathVariable UUID beerId,
+                                                       @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+                                                       @RequestBody JsonNode patch) {
+        BeerDTO patched = beerService.patchById(beerId, patch, expectedVersion(beerId, ifMatch))
+                .orElseThrow(NotfoundException::new);
+        return ResponseEntity.noContent().eTag(BeerETags.of(patched.getVersion())).build();
     }
 
     @GetMapping
-    public Page<BeerDTO> listBeers(@RequestParam(required = false) String beerName,
-                                   @RequestParam(required = false) BeerStyle beerStyle,
-                                   @RequestParam(required = false) Boolean showInventory,
-                                   @RequestParam(required = false) Integer pageNumber,
-                                   @RequestParam(required = false) Integer pageSize) {
-        return beerService.listBeers(beerName,beerStyle, showInventory, pageNumber, pageSize);
+    public ResponseEntity<Page<BeerDTO>> listBeers(@ModelAttribute BeerFilter filter,
+                                                   @RequestParam(required = false) List<String> include,
+                                                   @RequestParam(required = false) Boolean showInventory,
+                                                   @RequestParam(required = false) Integer pageNumber,
+                                                   @RequestParam(required = false) Integer pageSize,
+                                                   @RequestParam(required = false) List<String> sort,
+                                                   @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        boolean includeCategories = include != null && include.contains("categories");
+        Page<BeerDTO> page = beerService.listBeers(filter, includeCategories, showInventory, pageNumber, pageSize, sort);
+        String etag = BeerETags.of(page.getContent(), page.getTotalElements(), page.getNumber(), page.getSize());
+        return conditional(page, etag, ifNoneMatch);
+    }
+
+    @GetMapping(params = {"slice=true", "!cursor"})
+    public ResponseEntity<Slice<BeerDTO>> listBeersSlice(@ModelAttribute BeerFilter filter,
+                                                         @RequestParam(required = false) Boolean showInventory,
+                                                         @RequestParam(required = false) Integer pageNumber,
+                                                         @RequestParam(required = false) Integer pageSize,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Slice<BeerDTO> slice = beerService.listBeersSlice(filter, showInventory, pageNumber, pageSize);
+        String etag = BeerETags.of(slice.getContent(), slice.hasNext(), slice.getNumber(), slice.getSize());
+        return conditional(slice, etag, ifNoneMatch);
+    }
+
+    @GetMapping("/count")
+    public BeerCountDTO countBeers(@ModelAttribute BeerFilter filter) {
+        return beerService.countBeers(filter);
+    }
+
+    @GetMapping("/facets/style")
+    public List<BeerStyleFacetDTO> styleFacets(@RequestParam(defaultValue = "false") boolean prices) {
+        return beerService.styleFacets(prices);
+    }
+
+    @GetMapping(params = "cursor")
+    public ResponseEntity<BeerCursorPage> listBeersByCursor(@ModelAttribute BeerFilter filter,
+                                                            @RequestParam(required = false) Boolean showInventory,
+                                                            @RequestParam(required = false) String cursor,
+                                                            @RequestParam(required = false) Integer pageSize,
+                                                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        BeerCursorPage page = beerService.listBeersByCursor(filter, showInventory, cursor, pageSize);
+        String etag = BeerETags.of(page.getContent(), page.isHasNext(), page.getNextCursor());
+        return conditional(page, etag, ifNoneMatch);
+    }
+
+    @PostMapping("/{beerId}/inventory/increment")
+    public BeerInventoryDTO incrementInventory(@PathVariable UUID beerId,
+                                               @RequestParam(defaultValue = "1") @Positive int quantity) {
+        return new BeerInventoryDTO(beerId, beerInventoryService.increment(beerId, quantity));
+    }
+
+    @PostMapping("/{beerId}/inventory/decrement")
+    public BeerInventoryDTO decrementInventory(@PathVariable UUID beerId,
+                                               @RequestParam(defaultValue = "1") @Positive int quantity) {
+        return new BeerInventoryDTO(beerId, beerInventoryService.decrement(beerId, quantity));
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public void exportBeers(HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        long count = beerExportService.exportBeers(response.getOutputStream());
+        log.debug("Exported {} beers", count);
     }
 
     @GetMapping("/{id}")
-    public BeerDTO getBeerId(@PathVariable UUID id) {
+    public ResponseEntity<BeerDTO> getBeerId(@PathVariable UUID id,
+                                             @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         log.debug("Id get - in controller");
-        return beerService.getBeerById(id).orElseThrow(NotfoundException::new);
+        if (ifNoneMatch != null) {
+            // для 304 хватает версии: сущность не читается и не сериализуется
+            Optional<String> etag = beerService.getBeerVersion(id).map(BeerETags::of);
+            if (etag.isPresent() && BeerETags.noneMatchHits(ifNoneMatch, etag.get())) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag.get()).build();
+            }
+        }
+        BeerDTO beer = beerService.getBeerById(id).orElseThrow(NotfoundException::new);
+        return ResponseEntity.ok().eTag(BeerETags.of(beer.getVersion())).body(beer);
+    }
+
+    private static <T> ResponseEntity<T> conditional(T body, String etag, String ifNoneMatch) {
+        if (BeerETags.noneMatchHits(ifNoneMatch, etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).build();
+        }
+        return ResponseEntity.ok().eTag(etag).body(body);
+    }
+
+    /**
+     * Если в If-Match несколько тегов, в сервис уходит совпавший с текущей версией,
+     * а сама проверка остаётся оптимистичной блокировкой при сохранении
+     */
+    private Integer expectedVersion(UUID beerId, String ifMatch) {
+        List<Integer> versions = BeerETags.ifMatchVersions(ifMatch);
+        if (versions.size() < 2) {
+            return versions.isEmpty() ? null : versions.get(0);
+        }
+        return beerService.getBeerVersion(beerId)
+                .filter(versions::contains)
+                .orElse(versions.get(0));
     }
 
 }
@@ -0,0 +1,73 @@
+package org.example.controller;
+
+import org.example.dto.BeerDTO;
+import org.example.exception.PreconditionFailedException;
+import org.springframework.http.ETag;
+import org.springframework.util.DigestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Сильные ETag для пива: у одной записи это её version, у страницы списка - хеш пар (beerId, version).
+ */
+final class BeerETags {
+
+    private BeerETags() {
+    }
+
+    static String of(Integer version) {
+        return "\"" + version + "\"";
+    }
+
+    static String of(List<BeerDTO> content, Object... pageKey) {
+        StringBuilder key = new StringBuilder();
+        for (Object part : pageKey) {
+            key.append(part).append(';');
+        }
+        for (BeerDTO beer : content) {
+            key.append(beer.getBeerId()).append(':').append(beer.getVersion());
+            // связи с категориями не меняют версию пива, поэтому входят в тег отдельно
+            if (beer.getCategories() != null) {
+                beer.getCategories().forEach(category -> key.append(',').append(category.getId())
+                        .append('=').append(category.getDescription()));
+            }
+            key.append(';');
+        }
+        return "\"" + DigestUtils.md5DigestAsHex(key.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * If-None-Match сравнивается слабо: W/"1" совпадает с "1"
+     */
+    static boolean noneMatchHits(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        String tag = etag.substring(1, etag.length() - 1);
+        return ETag.parse(ifNoneMatch).stream()
+                .anyMatch(candidate -> candidate.isWildcard() || candidate.tag().equals(tag));
+    }
+
+    /**
+     * Версии из If-Match; пустой список - заголовка нет или это "*".
+     * Слабые и нечисловые теги никогда не совпадают строго, поэтому сразу 412.
+     */
+    static List<Integer> ifMatchVersions(String ifMatch) {
+        if (ifMatch == null) {
+            return List.of();
+        }
+        List<ETag> tags = ETag.parse(ifMatch);
+        if (tags.stream().anyMatch(ETag::isWildcard)) {
+            return List.of();
+        }
+        List<Integer> versions = tags.stream()
+                .filter(tag -> !tag.weak() && tag.tag().matches("\\d{1,9}"))
+                .map(tag -> Integer.valueOf(tag.tag()))
+                .toList();
+        if (versions.isEmpty()) {
+            throw new PreconditionFailedException();
+        }
+        return versions;
+    }
+}
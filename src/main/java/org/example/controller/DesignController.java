@@ -1,12 +1,14 @@
 package org.example.controller;
 
+import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.example.entity.Ingredient;
 import org.example.entity.Ingredient.Type;
 import org.example.entity.Taco;
-import org.example.entity.TacoOrder;
 import org.example.repository.IngredientRepository;
+import org.example.service.DraftOrderStore;
+import org.example.service.ingredient.IngredientSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.context.annotation.Bean;
@@ -17,37 +19,28 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.SessionAttributes;
-
-import java.util.stream.Collectors;
-import java.util.stream.StreamSupport;
 
 @Slf4j
 @Controller
 @RequestMapping("/design")
-@SessionAttributes("tacoOrder")
 public class DesignController {
 
-    private final IngredientRepository ingredientRepo;
+    private final IngredientSnapshot ingredientSnapshot;
+    private final DraftOrderStore draftOrderStore;
 
     @Autowired
-    public DesignController(IngredientRepository ingredientRepo) {
-        this.ingredientRepo = ingredientRepo;
+    public DesignController(IngredientSnapshot ingredientSnapshot, DraftOrderStore draftOrderStore) {
+        this.ingredientSnapshot = ingredientSnapshot;
+        this.draftOrderStore = draftOrderStore;
     }
 
+    /**
+     * Списки по типам берутся из готового снимка: ни запроса к базе, ни фильтрации на каждый GET и POST
+     */
     @ModelAttribute
     public void addIngredientsToModel(Model model) {
-        Iterable<Ingredient> ingredients = ingredientRepo.findAll();
-        Type[] types = Type.values();
-        for (Type type : types) {
-            model.addAttribute(type.toString().toLowerCase(),
-                    filterByType(ingredients, type));
-        }
-    }
-
-    @ModelAttribute(name = "tacoOrder")
-    public TacoOrder order() {
-        return new TacoOrder();
+        ingredientSnapshot.byType().forEach((type, ingredients) ->
+                model.addAttribute(type.toString().toLowerCase(), ingredients));
     }
 
     @ModelAttribute(name = "taco")
@@ -62,23 +55,16 @@ public class DesignController {
 
     @PostMapping
     public String processTaco(
-            @Valid Taco taco, Errors errors,
-            @ModelAttribute TacoOrder tacoOrder) {
+            @Valid Taco taco, Errors errors, HttpSession session) {
         if (errors.hasErrors()) {
             return "design";
         }
-        tacoOrder.addTaco(taco);
+        // под блокировкой черновика: два параллельных POST не теряют ни одного тако
+        draftOrderStore.update(session.getId(), tacoOrder -> tacoOrder.addTaco(taco));
         log.info("Processing taco: {}", taco);
         return "redirect:/orders/current";
     }
 
-    private Iterable<Ingredient> filterByType(
-            Iterable<Ingredient> ingredients, Type type) {
-        return StreamSupport.stream(ingredients.spliterator(), false)
-                .filter(i -> i.getType().equals(type))
-                .collect(Collectors.toList());
-    }
-
     /**
      * Предварительное заполнение базы данных
      */
@@ -1,27 +1,56 @@
 package org.example.controller;
 
+import jakarta.servlet.http.HttpSession;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.example.entity.TacoOrder;
-import org.example.repository.OrderRepository;
+import org.example.service.DraftOrderStore;
+import org.example.service.OrderService;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.Errors;
+import org.springframework.web.bind.WebDataBinder;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.InitBinder;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.SessionAttributes;
-import org.springframework.web.bind.support.SessionStatus;
+import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 @Controller
 @RequestMapping("/orders")
 @Slf4j
-@SessionAttributes("tacoOrder")
 public class OrderController {
 
-    private OrderRepository orderRepo;
+    private OrderService orderService;
+    private DraftOrderStore draftOrderStore;
 
-    public OrderController(OrderRepository orderRepo) {
-        this.orderRepo = orderRepo;
+    public OrderController(OrderService orderService, DraftOrderStore draftOrderStore) {
+        this.orderService = orderService;
+        this.draftOrderStore = draftOrderStore;
+    }
+
+    /**
+     * Форма несёт только доставку и оплату, тако берутся из черновика
+     */
+    @InitBinder("tacoOrder")
+    public void allowDeliveryAndPayment(WebDataBinder binder) {
+        binder.setAllowedFields("deliveryName", "deliveryStreet", "deliveryCity", "deliveryState", "deliveryZip",
+                "ccNumber", "ccExpiration", "ccCVV");
+    }
+
+    /**
+     * Заказ собирается поверх черновика до валидации, поэтому проверка на пустой заказ видит его тако.
+     * Снятые тако удаляются из черновика сразу, пометка о них остаётся только на этот запрос
+     */
+    @ModelAttribute(name = "tacoOrder")
+    public TacoOrder tacoOrder(HttpSession session) {
+        TacoOrder draft = draftOrderStore.load(session.getId());
+        if (!draft.getUnavailableTacos().isEmpty()) {
+            // перечитывается под блокировкой, чтобы не затереть тако, добавленный параллельно
+            draft = draftOrderStore.update(session.getId(), current -> {
+            });
+        }
+        return draft;
     }
 
     @GetMapping("/current")
@@ -31,13 +60,22 @@ public class OrderController {
 
     @PostMapping
     public String processOrder(@Valid TacoOrder order, Errors errors,
-                               SessionStatus sessionStatus){
+                               HttpSession session, RedirectAttributes redirectAttributes){
+        if (order.getTacos().isEmpty()){
+            redirectAttributes.addFlashAttribute("orderError", order.getUnavailableTacos().isEmpty()
+                    ? "You must design at least 1 taco before ordering"
+                    : "Ingredients are no longer available for: " + String.join(", ", order.getUnavailableTacos()));
+            return "redirect:/design";
+        }
+        if (!order.getUnavailableTacos().isEmpty()){
+            errors.reject("tacos.unavailable", "Some tacos were removed from the order");
+        }
         if (errors.hasErrors()){
             return "orderForm";
         }
         log.info("Order submitted: {}",order);
-        orderRepo.save(order);
-        sessionStatus.setComplete();
+        orderService.placeOrder(order);
+        draftOrderStore.remove(session.getId());
         return "redirect:/";
     }
-}
\ No newline at end of file
+}
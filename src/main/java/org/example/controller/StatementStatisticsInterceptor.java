@@ -0,0 +1,44 @@
+package org.example.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.example.service.stats.StatementStatistics;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Открывает счётчики SQL до вызова @ModelAttribute-методов и обработчика, закрывает после рендеринга,
+ * так что запросы из шаблона и ленивые подгрузки тоже попадают на метод контроллера.
+ * В срезах @WebMvcTest без JPA бина статистики нет, и перехватчик ничего не делает.
+ */
+@Component
+@RequiredArgsConstructor
+public class StatementStatisticsInterceptor implements HandlerInterceptor, WebMvcConfigurer {
+
+    private final ObjectProvider<StatementStatistics> statementStatistics;
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(this);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod method) {
+            String name = method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+            statementStatistics.ifAvailable(statistics -> statistics.begin(name));
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler,
+                                Exception ex) {
+        statementStatistics.ifAvailable(StatementStatistics::end);
+    }
+}
@@ -1,22 +1,27 @@
 package org.example.converter;
 
 import org.example.entity.Ingredient;
-import org.example.repository.IngredientRepository;
+import org.example.service.ingredient.IngredientSnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.convert.converter.Converter;
 import org.springframework.stereotype.Component;
 
+/**
+ * id из формы тако ищется в снимке справочника, а не запросом на каждый ингредиент.
+ * Неизвестный id даёт ошибку конвертации, которую DataBinder превращает в ошибку поля ingredients.
+ */
 @Component
 public class IngredientByIdConverter implements Converter<String, Ingredient> {
-    private IngredientRepository ingredientRepo;
+    private IngredientSnapshot ingredientSnapshot;
 
     @Autowired
-    public IngredientByIdConverter(IngredientRepository ingredientRepo) {
-        this.ingredientRepo = ingredientRepo;
+    public IngredientByIdConverter(IngredientSnapshot ingredientSnapshot) {
+        this.ingredientSnapshot = ingredientSnapshot;
     }
 
     @Override
     public Ingredient convert(String id) {
-        return ingredientRepo.findById(id).orElse(null);
+        return ingredientSnapshot.byId(id)
+                .orElseThrow(() -> new IllegalArgumentException("Unknown ingredient: " + id));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,6 @@
+package org.example.dto;
+
+import java.time.LocalDateTime;
+
+public record BeerCountDTO(long total, LocalDateTime countedAt) {
+}
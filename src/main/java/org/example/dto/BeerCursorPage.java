@@ -0,0 +1,17 @@
+package org.example.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BeerCursorPage {
+
+    private List<BeerDTO> content;
+    private int size;
+    private boolean hasNext;
+    private String nextCursor;
+
+}
@@ -1,16 +1,22 @@
 package org.example.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Set;
 import java.util.UUID;
 
 @Data
-@Builder
+@Builder(toBuilder = true)
+@NoArgsConstructor
+@AllArgsConstructor
 public class BeerDTO {
 
     private UUID beerId;
@@ -28,5 +34,23 @@ public class BeerDTO {
     private BigDecimal price;
     private LocalDateTime createdDate;
     private LocalDateTime updateDate;
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private Set<CategoryDTO> categories;
+
+    /**
+     * Проекция списка: категории догружаются отдельным запросом только по include=categories
+     */
+    public BeerDTO(UUID beerId, Integer version, String beerName, BeerStyle beerStyle, String upc,
+                   Integer quantityOnHand, BigDecimal price, LocalDateTime createdDate, LocalDateTime updateDate) {
+        this(beerId, version, beerName, beerStyle, upc, quantityOnHand, price, createdDate, updateDate, null);
+    }
+
+    /**
+     * Проекция списка без остатков: quantityOnHand не выбирается из базы
+     */
+    public BeerDTO(UUID beerId, Integer version, String beerName, BeerStyle beerStyle, String upc,
+                   BigDecimal price, LocalDateTime createdDate, LocalDateTime updateDate) {
+        this(beerId, version, beerName, beerStyle, upc, null, price, createdDate, updateDate, null);
+    }
 
 }
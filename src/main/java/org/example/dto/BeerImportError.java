@@ -0,0 +1,8 @@
+package org.example.dto;
+
+public record BeerImportError(
+        long row,
+        String field,
+        String message
+) {
+}
@@ -0,0 +1,5 @@
+package org.example.dto;
+
+public enum BeerImportFormat {
+    NDJSON, CSV
+}
@@ -0,0 +1,18 @@
+package org.example.dto;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+@Builder
+public class BeerImportReport {
+
+    private long rows;
+    private long accepted;
+    private long rejected;
+    private List<BeerImportError> errors;
+    private boolean errorsTruncated;
+
+}
@@ -0,0 +1,6 @@
+package org.example.dto;
+
+import java.util.UUID;
+
+public record BeerInventoryDTO(UUID beerId, long available) {
+}
@@ -0,0 +1,7 @@
+package org.example.dto;
+
+import java.math.BigDecimal;
+
+public record BeerStyleFacetDTO(BeerStyle beerStyle, long count,
+                                BigDecimal minPrice, BigDecimal maxPrice, BigDecimal avgPrice) {
+}
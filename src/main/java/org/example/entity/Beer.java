@@ -19,7 +19,10 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import org.example.dto.BeerStyle;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.DynamicUpdate;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.type.SqlTypes;
@@ -34,6 +37,7 @@ import java.util.UUID;
 @Setter
 @Builder
 @Entity
+@DynamicUpdate
 @NoArgsConstructor
 @AllArgsConstructor
 @Table(catalog = "global", schema = "test-practice", name = "beer")
@@ -41,8 +45,8 @@ public class Beer {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
-    @Column(length = 36,columnDefinition = "varchar",updatable = false, nullable = false)
-    @JdbcTypeCode(SqlTypes.CHAR)
+    @Column(updatable = false, nullable = false)
+    @JdbcTypeCode(SqlTypes.UUID)
     private UUID beerId;
     @Version
     private Integer version;
@@ -61,6 +65,7 @@ public class Beer {
     @NotNull
     private BigDecimal price;
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "beer-categories")
     @JoinTable(name = "beer_category",joinColumns = @JoinColumn(name = "beer_id"),
             inverseJoinColumns = @JoinColumn(name = "category_id"))
     @Builder.Default
@@ -1,5 +1,6 @@
 package org.example.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -15,6 +16,8 @@ import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.JdbcTypeCode;
 import org.hibernate.annotations.UpdateTimestamp;
@@ -32,12 +35,14 @@ import java.util.UUID;
 @EqualsAndHashCode
 @Entity
 @Builder
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "category")
 public class Category {
 
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
-    @JdbcTypeCode(SqlTypes.CHAR)
-    @Column(length = 36, columnDefinition = "varchar(36)",updatable = false,nullable = false)
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(updatable = false,nullable = false)
     private UUID id;
     @Version
     private Long version;
@@ -51,6 +56,8 @@ public class Category {
     @JoinTable(name = "beer_category",
             joinColumns = @JoinColumn(name = "category_id"),
             inverseJoinColumns = @JoinColumn(name = "beer_id"))
+    // ленивая коллекция в hashCode заставляла подгружать все пиво категории при добавлении её в Set
+    @EqualsAndHashCode.Exclude
     @Builder.Default
     private Set<Beer> beers = new HashSet<>();
 }
@@ -1,17 +1,25 @@
 package org.example.entity;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.example.event.IngredientChangePublisher;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Data
 @Entity
 @AllArgsConstructor
 @NoArgsConstructor()
 @Table(catalog = "global", schema = "test-practice", name = "ingredients")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "ingredient")
+@EntityListeners(IngredientChangePublisher.class)
 public class Ingredient {
     @Id
     private String id;
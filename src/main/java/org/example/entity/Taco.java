@@ -7,10 +7,13 @@ import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.Date;
@@ -22,7 +25,9 @@ import java.util.List;
 public class Taco {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "taco_seq")
+    @SequenceGenerator(name = "taco_seq", catalog = "global", schema = "test-practice",
+            sequenceName = "taco_seq", allocationSize = 50)
     private Long id;
 
     @NotNull
@@ -30,6 +35,7 @@ public class Taco {
     private String name;
 
     @ManyToMany
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "taco-ingredients")
     @Size(min=1, message="You must choose at least 1 ingredient")
     @JoinTable(
             name = "taco_ingredients",
@@ -3,19 +3,27 @@ package org.example.entity;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.Digits;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 import org.hibernate.validator.constraints.CreditCardNumber;
 
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
+import java.util.UUID;
 
 @Data
 @Entity
@@ -23,8 +31,20 @@ import java.util.List;
 public class TacoOrder implements Serializable {
 
     private static final long serialVersionUID = 1L;
+    /**
+     * Пул из 50 id на один вызов последовательности: id известен до INSERT, и вставки идут JDBC-батчем
+     */
     @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "taco_order_seq")
+    @SequenceGenerator(name = "taco_order_seq", catalog = "global", schema = "test-practice",
+            sequenceName = "taco_order_seq", allocationSize = 50)
     private Long id;
+    /**
+     * Ключ идемпотентности отправки: повторная запись того же заказа из журнала отсекается по нему
+     */
+    @JdbcTypeCode(SqlTypes.UUID)
+    @Column(name = "submission_id", unique = true, updatable = false)
+    private UUID submissionId;
     @NotBlank(message="Delivery name is required")
     private String deliveryName;
     @NotBlank(message="Street is required")
@@ -46,7 +66,14 @@ public class TacoOrder implements Serializable {
     private Date placeAt=new Date();
 
     @OneToMany(cascade = CascadeType.ALL)
+    @Size(min=1, message="You must design at least 1 taco")
     private List<Taco> tacos=new ArrayList<>();
+    /**
+     * Тако черновика, чьи ингредиенты пропали из справочника: в заказ они не попадают, а покупателю
+     * показываются, чтобы он не оплатил меньше, чем собирал
+     */
+    @Transient
+    private List<String> unavailableTacos=new ArrayList<>();
 
     public void addTaco(Taco taco){
         this.tacos.add(taco);
@@ -0,0 +1,21 @@
+package org.example.event;
+
+import org.example.dto.BeerDTO;
+
+/**
+ * Состояние пива до и после изменения: before == null при создании, after == null при удалении
+ */
+public record BeerChangedEvent(BeerDTO before, BeerDTO after) {
+
+    public static BeerChangedEvent created(BeerDTO after) {
+        return new BeerChangedEvent(null, after);
+    }
+
+    public static BeerChangedEvent updated(BeerDTO before, BeerDTO after) {
+        return new BeerChangedEvent(before, after);
+    }
+
+    public static BeerChangedEvent deleted(BeerDTO before) {
+        return new BeerChangedEvent(before, null);
+    }
+}
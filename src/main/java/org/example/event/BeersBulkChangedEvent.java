@@ -0,0 +1,27 @@
+package org.example.event;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Изменение многих строк одним UPDATE/DELETE: построчных before/after нет, слушатели перечитывают состояние сами.
+ * beerIds известны только при удалении по списку
+ */
+public record BeersBulkChangedEvent(Operation operation, Set<UUID> beerIds) {
+
+    public enum Operation {
+        DELETED, REPRICED, RESTOCKED
+    }
+
+    public static BeersBulkChangedEvent deleted(Set<UUID> beerIds) {
+        return new BeersBulkChangedEvent(Operation.DELETED, beerIds);
+    }
+
+    public static BeersBulkChangedEvent repriced() {
+        return new BeersBulkChangedEvent(Operation.REPRICED, Set.of());
+    }
+
+    public static BeersBulkChangedEvent restocked() {
+        return new BeersBulkChangedEvent(Operation.RESTOCKED, Set.of());
+    }
+}
@@ -0,0 +1,25 @@
+package org.example.event;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.example.entity.Ingredient;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * JPA-слушатель Ingredient; Hibernate создаёт его через контейнер Spring, поэтому зависимости внедряются.
+ * Событие публикуется внутри транзакции записи, а @TransactionalEventListener получает его после коммита.
+ */
+@RequiredArgsConstructor
+public class IngredientChangePublisher {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void changed(Ingredient ingredient) {
+        eventPublisher.publishEvent(new IngredientsChangedEvent(ingredient.getId()));
+    }
+}
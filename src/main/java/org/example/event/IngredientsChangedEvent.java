@@ -0,0 +1,7 @@
+package org.example.event;
+
+/**
+ * Ингредиент создан, изменён или удалён; слушатели перечитывают справочник после коммита
+ */
+public record IngredientsChangedEvent(String ingredientId) {
+}
@@ -0,0 +1,14 @@
+package org.example.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.UUID;
+
+@ResponseStatus(value = HttpStatus.CONFLICT, reason = "Insufficient stock")
+public class InsufficientStockException extends RuntimeException {
+
+    public InsufficientStockException(UUID beerId, long available, int requested) {
+        super("Insufficient stock for beer " + beerId + ": available " + available + ", requested " + requested);
+    }
+}
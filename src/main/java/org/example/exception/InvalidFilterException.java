@@ -0,0 +1,12 @@
+package org.example.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST, reason = "Invalid filter")
+public class InvalidFilterException extends RuntimeException {
+
+    public InvalidFilterException(String message) {
+        super("Invalid filter: " + message);
+    }
+}
@@ -0,0 +1,12 @@
+package org.example.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST, reason = "Invalid merge patch")
+public class InvalidPatchException extends RuntimeException {
+
+    public InvalidPatchException(String message) {
+        super("Invalid merge patch: " + message);
+    }
+}
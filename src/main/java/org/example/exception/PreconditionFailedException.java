@@ -0,0 +1,12 @@
+package org.example.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.PRECONDITION_FAILED, reason = "Version mismatch")
+public class PreconditionFailedException extends RuntimeException {
+
+    public PreconditionFailedException() {
+        super("Precondition failed: beer version mismatch");
+    }
+}
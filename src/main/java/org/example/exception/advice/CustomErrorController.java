@@ -18,19 +18,27 @@ public class CustomErrorController {
     ResponseEntity<List<Map<String, String>>> handleJPAViolation(TransactionSystemException exception) {
         ResponseEntity.BodyBuilder responseEntity = ResponseEntity.badRequest();
         if (exception.getCause().getCause() instanceof ConstraintViolationException ve) {
-            List<Map<String,String>> errors = ve.getConstraintViolations()
-                    .stream()
-                    .map(constraintViolation -> {
-                        Map<String, String> errMap = new HashMap<>();
-                        errMap.put(constraintViolation.getPropertyPath().toString(),
-                                constraintViolation.getMessage());
-                        return errMap;
-                    }).toList();
-            return responseEntity.body(errors);
+            return responseEntity.body(violations(ve));
         }
         return responseEntity.build();
     }
 
+    @ExceptionHandler(ConstraintViolationException.class)
+    ResponseEntity<List<Map<String, String>>> handleConstraintViolation(ConstraintViolationException exception) {
+        return ResponseEntity.badRequest().body(violations(exception));
+    }
+
+    private static List<Map<String, String>> violations(ConstraintViolationException exception) {
+        return exception.getConstraintViolations()
+                .stream()
+                .map(constraintViolation -> {
+                    Map<String, String> errMap = new HashMap<>();
+                    errMap.put(constraintViolation.getPropertyPath().toString(),
+                            constraintViolation.getMessage());
+                    return errMap;
+                }).toList();
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     ResponseEntity<List<Map<String, String>>> handleBindErrors(MethodArgumentNotValidException exception) {
         List<Map<String,String>> errorList = exception.getFieldErrors()
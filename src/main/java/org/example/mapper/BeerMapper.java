@@ -3,10 +3,15 @@ package org.example.mapper;
 import org.example.dto.BeerDTO;
 import org.example.entity.Beer;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.MappingConstants;
 
 @Mapper(componentModel = MappingConstants.ComponentModel.SPRING)
 public interface BeerMapper {
+    @Mapping(target = "categories", ignore = true)
     Beer beerDtoToBeer(BeerDTO dto);
+
+    // ленивые категории не трогаем, иначе каждый маппинг догружает коллекцию
+    @Mapping(target = "categories", ignore = true)
     BeerDTO beerToBeerDTO(Beer beer);
 }
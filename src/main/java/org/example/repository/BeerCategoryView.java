@@ -0,0 +1,12 @@
+package org.example.repository;
+
+import java.util.UUID;
+
+public interface BeerCategoryView {
+
+    UUID getBeerId();
+
+    UUID getCategoryId();
+
+    String getDescription();
+}
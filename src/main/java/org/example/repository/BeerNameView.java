@@ -0,0 +1,14 @@
+package org.example.repository;
+
+import org.example.dto.BeerStyle;
+
+import java.util.UUID;
+
+public interface BeerNameView {
+
+    UUID getBeerId();
+
+    String getBeerName();
+
+    BeerStyle getBeerStyle();
+}
@@ -0,0 +1,39 @@
+package org.example.repository;
+
+import org.example.dto.BeerDTO;
+import org.example.entity.Beer;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+public interface BeerQueryRepository {
+
+    Page<BeerDTO> findBeerDTOs(Specification<Beer> spec, boolean withInventory, Pageable pageable);
+
+    /**
+     * Страница без COUNT(*): выбирается pageSize + 1 строк, лишняя показывает hasNext
+     */
+    Slice<BeerDTO> findBeerDTOSlice(Specification<Beer> spec, boolean withInventory, Pageable pageable);
+
+    /**
+     * Keyset-страница в порядке (binary_collate(beerName), beerId) сразу за ключом (lastBeerName, lastBeerId);
+     * без ключа - первая страница
+     */
+    List<BeerDTO> findKeysetPage(BeerSpecifications.Condition condition, String lastBeerName, UUID lastBeerId,
+                                 int limit);
+
+    /**
+     * price = price * factor с округлением до копеек одним UPDATE, version увеличивается
+     */
+    int repriceBeers(BeerSpecifications.Condition condition, BigDecimal factor);
+
+    /**
+     * quantityOnHand += quantity одним UPDATE, version увеличивается
+     */
+    int restockBeers(BeerSpecifications.Condition condition, int quantity);
+}
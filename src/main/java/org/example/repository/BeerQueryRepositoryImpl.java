@@ -0,0 +1,201 @@
+package org.example.repository;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.ParameterExpression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.example.dto.BeerDTO;
+import org.example.entity.Beer;
+import org.hibernate.Session;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.hibernate.query.criteria.JpaCriteriaQuery;
+import org.hibernate.type.StandardBasicTypes;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Specification + проекция через cb.construct: JpaSpecificationExecutor умеет только сущности,
+ * а списку нужны BeerDTO без управляемых объектов
+ */
+public class BeerQueryRepositoryImpl implements BeerQueryRepository {
+
+    /**
+     * Масштаб колонки price
+     */
+    private static final int PRICE_SCALE = 2;
+
+    /**
+     * Сравнение строк (ключ) > (значения): PostgreSQL превращает его в range scan по idx_beer_name_id,
+     * а OR из двух условий на ключ и фильтры вида (:x is null or ...) оставляют только полный проход
+     */
+    private static final String KEYSET_SEEK =
+            "where (binary_collate(b.beerName), b.beerId) > (:lastBeerName, :lastBeerId) ";
+    private static final String KEYSET_ORDER = "order by binary_collate(b.beerName), b.beerId";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<BeerDTO> findBeerDTOs(Specification<Beer> spec, boolean withInventory, Pageable pageable) {
+        TypedQuery<BeerDTO> typedQuery = dtoQuery(spec, withInventory, pageable.getSort());
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        return PageableExecutionUtils.getPage(typedQuery.getResultList(), pageable, () -> count(spec));
+    }
+
+    @Override
+    public Slice<BeerDTO> findBeerDTOSlice(Specification<Beer> spec, boolean withInventory, Pageable pageable) {
+        TypedQuery<BeerDTO> typedQuery = dtoQuery(spec, withInventory, pageable.getSort());
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(typedQuery.getResultList(), pageable, false);
+        }
+        List<BeerDTO> beers = typedQuery.setFirstResult((int) pageable.getOffset())
+                .setMaxResults(pageable.getPageSize() + 1)
+                .getResultList();
+        boolean hasNext = beers.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? beers.subList(0, pageable.getPageSize()) : beers, pageable, hasNext);
+    }
+
+    private TypedQuery<BeerDTO> dtoQuery(Specification<Beer> spec, boolean withInventory, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<BeerDTO> query = cb.createQuery(BeerDTO.class);
+        Root<Beer> beer = query.from(Beer.class);
+        query.select(cb.construct(BeerDTO.class, selections(beer, withInventory)));
+        Predicate where = spec.toPredicate(beer, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        query.orderBy(orders(sort, beer, cb));
+        return entityManager.createQuery(query);
+    }
+
+    /**
+     * Ключ и порядок задаёт HQL (в Criteria API нет сравнения строк), фильтры добавляются к нему через Condition -
+     * в WHERE попадают только заданные поля
+     */
+    @Override
+    public List<BeerDTO> findKeysetPage(BeerSpecifications.Condition condition, String lastBeerName, UUID lastBeerId,
+                                        int limit) {
+        boolean seek = lastBeerName != null;
+        HibernateCriteriaBuilder cb = entityManager.unwrap(Session.class).getCriteriaBuilder();
+        JpaCriteriaQuery<BeerDTO> query = cb.createQuery(BeerRepository.BEER_DTO + "from Beer b "
+                + (seek ? KEYSET_SEEK : "") + KEYSET_ORDER, BeerDTO.class);
+        @SuppressWarnings("unchecked")
+        Root<Beer> beer = (Root<Beer>) query.getRoots().iterator().next();
+        Predicate filter = condition.toPredicate(beer, query, cb);
+        if (filter != null) {
+            query.where(query.getRestriction() == null ? filter : cb.and(query.getRestriction(), filter));
+        }
+
+        TypedQuery<BeerDTO> typedQuery = entityManager.createQuery(query).setMaxResults(limit);
+        if (seek) {
+            typedQuery.setParameter("lastBeerName", lastBeerName).setParameter("lastBeerId", lastBeerId);
+        }
+        return typedQuery.getResultList();
+    }
+
+    private long count(Specification<Beer> spec) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Beer> beer = query.from(Beer.class);
+        query.select(cb.count(beer));
+        Predicate where = spec.toPredicate(beer, query, cb);
+        if (where != null) {
+            query.where(where);
+        }
+        return entityManager.createQuery(query).getSingleResult();
+    }
+
+    @Override
+    public int repriceBeers(BeerSpecifications.Condition condition, BigDecimal factor) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Beer> update = cb.createCriteriaUpdate(Beer.class);
+        Root<Beer> beer = update.from(Beer.class);
+        Path<BigDecimal> price = beer.get("price");
+        ParameterExpression<BigDecimal> multiplier = cb.parameter(BigDecimal.class, "factor");
+        update.set(price, cb.round(cb.prod(price, multiplier), PRICE_SCALE));
+        // без явного типа параметр получил бы тип колонки price (scale 2) и множитель 0.925 стал бы 0.93;
+        // с явным BIG_DECIMAL приведение берёт точность и масштаб самого значения
+        return execute(update, beer, condition, cb, query -> query.unwrap(org.hibernate.query.Query.class)
+                .setParameter(multiplier.getName(), factor, StandardBasicTypes.BIG_DECIMAL));
+    }
+
+    @Override
+    public int restockBeers(BeerSpecifications.Condition condition, int quantity) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Beer> update = cb.createCriteriaUpdate(Beer.class);
+        Root<Beer> beer = update.from(Beer.class);
+        Expression<Integer> onHand = cb.coalesce(beer.<Integer>get("quantityOnHand"), 0);
+        update.set(beer.<Integer>get("quantityOnHand"), cb.sum(onHand, quantity));
+        return execute(update, beer, condition, cb, query -> {
+        });
+    }
+
+    private int execute(CriteriaUpdate<Beer> update, Root<Beer> beer, BeerSpecifications.Condition condition,
+                        CriteriaBuilder cb, Consumer<Query> parameters) {
+        // массовый UPDATE обходит @Version и @UpdateTimestamp, поэтому оба поля выставляются явно
+        update.set(beer.<Integer>get("version"), cb.sum(beer.get("version"), 1));
+        update.set(beer.<LocalDateTime>get("updateDate"), LocalDateTime.now());
+        Predicate where = condition.toPredicate(beer, update, cb);
+        if (where != null) {
+            update.where(where);
+        }
+        Query query = entityManager.createQuery(update);
+        parameters.accept(query);
+        return query.executeUpdate();
+    }
+
+    /**
+     * Сортировка по имени идёт по binary_collate, как у индекса имён в памяти: страницы из обоих путей совпадают
+     */
+    private static List<Order> orders(Sort sort, Root<Beer> beer, CriteriaBuilder cb) {
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            if (!"beerName".equals(order.getProperty())) {
+                orders.addAll(QueryUtils.toOrders(Sort.by(order), beer, cb));
+                continue;
+            }
+            Expression<String> name = cb.function(BinaryCollationFunctionContributor.BINARY_COLLATE, String.class,
+                    beer.get("beerName"));
+            orders.add(order.isAscending() ? cb.asc(name) : cb.desc(name));
+        }
+        return orders;
+    }
+
+    private static Selection<?>[] selections(Root<Beer> beer, boolean withInventory) {
+        List<Selection<?>> selections = new ArrayList<>(List.of(
+                beer.get("beerId"), beer.get("version"), beer.get("beerName"), beer.get("beerStyle"), beer.get("upc")));
+        if (withInventory) {
+            selections.add(beer.get("quantityOnHand"));
+        }
+        selections.add(beer.get("price"));
+        selections.add(beer.get("createdDate"));
+        selections.add(beer.get("updateDate"));
+        return selections.toArray(Selection[]::new);
+    }
+}
@@ -1,15 +1,70 @@
 package org.example.repository;
 
+import jakarta.persistence.QueryHint;
+import org.example.dto.BeerDTO;
 import org.example.dto.BeerStyle;
 import org.example.entity.Beer;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
+
+public interface BeerRepository extends JpaRepository<Beer, UUID>, JpaSpecificationExecutor<Beer>, BeerQueryRepository {
+
+    String BEER_DTO = "select new org.example.dto.BeerDTO(b.beerId, b.version, b.beerName, b.beerStyle, b.upc, " +
+            "b.quantityOnHand, b.price, b.createdDate, b.updateDate) ";
+    String BEER_DTO_WITHOUT_INVENTORY = "select new org.example.dto.BeerDTO(b.beerId, b.version, b.beerName, " +
+            "b.beerStyle, b.upc, b.price, b.createdDate, b.updateDate) ";
 
-public interface BeerRepository extends JpaRepository<Beer, UUID> {
     Page<Beer> findAllByBeerNameIsLikeIgnoreCase(String beerName, Pageable pageable);
     Page<Beer> findAllByBeerStyle(BeerStyle beerStyle, Pageable pageable);
     Page<Beer> findAllByBeerNameIsLikeIgnoreCaseAndBeerStyle(String beerName, BeerStyle beerStyle, Pageable pageable);
+
+    @Query("select b.beerId as beerId, c.id as categoryId, c.description as description " +
+            "from Beer b join b.categories c where b.beerId in :beerIds")
+    List<BeerCategoryView> findCategoriesByBeerIds(@Param("beerIds") Collection<UUID> beerIds);
+
+    @Query("select b.version from Beer b where b.beerId = :beerId")
+    Optional<Integer> findVersionByBeerId(@Param("beerId") UUID beerId);
+
+    @Query("select coalesce(b.quantityOnHand, 0) from Beer b where b.beerId = :beerId")
+    Optional<Integer> findQuantityOnHandByBeerId(@Param("beerId") UUID beerId);
+
+    @Query(BEER_DTO + "from Beer b where b.beerId in :beerIds")
+    List<BeerDTO> findBeerDTOsByIds(@Param("beerIds") Collection<UUID> beerIds);
+
+    @Query(BEER_DTO_WITHOUT_INVENTORY + "from Beer b where b.beerId in :beerIds")
+    List<BeerDTO> findBeerDTOsWithoutInventoryByIds(@Param("beerIds") Collection<UUID> beerIds);
+
+    /**
+     * Один DELETE; строки beer_category Hibernate удаляет сам перед ним
+     */
+    @Modifying
+    @Query("delete from Beer b where b.beerId in :beerIds")
+    int deleteByBeerIdIn(@Param("beerIds") Collection<UUID> beerIds);
+
+    @Query("select b.beerId as beerId, b.beerName as beerName, b.beerStyle as beerStyle from Beer b")
+    Stream<BeerNameView> streamAllNames();
+
+    @Query("select b.beerStyle as beerStyle, b.price as price, count(b) as beers " +
+            "from Beer b group by b.beerStyle, b.price")
+    List<BeerStylePriceCount> countByStyleAndPrice();
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select b from Beer b")
+    Stream<Beer> streamAll();
 }
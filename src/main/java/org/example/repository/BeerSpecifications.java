@@ -0,0 +1,108 @@
+package org.example.repository;
+
+import jakarta.persistence.criteria.CommonAbstractCriteria;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.example.dto.BeerFilter;
+import org.example.entity.Beer;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.util.StringUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Условия для BeerFilter: в запрос попадают только заданные поля
+ */
+public final class BeerSpecifications {
+
+    private BeerSpecifications() {
+    }
+
+    /**
+     * Условие на корень Beer любого запроса: Specification годится только для CriteriaQuery,
+     * а массовым UPDATE нужны предикат и подзапросы от собственного корня CriteriaUpdate
+     */
+    @FunctionalInterface
+    public interface Condition {
+
+        Predicate toPredicate(Root<Beer> beer, CommonAbstractCriteria criteria, CriteriaBuilder cb);
+    }
+
+    public static Specification<Beer> matching(BeerFilter filter) {
+        Condition condition = condition(filter);
+        return (beer, query, cb) -> condition.toPredicate(beer, query, cb);
+    }
+
+    /**
+     * Все заданные поля фильтра через AND; без полей - null, то есть без WHERE
+     */
+    public static Condition condition(BeerFilter filter) {
+        List<Condition> conditions = conditions(filter);
+        return (beer, criteria, cb) -> conditions.isEmpty() ? null : cb.and(conditions.stream()
+                .map(condition -> condition.toPredicate(beer, criteria, cb))
+                .toArray(Predicate[]::new));
+    }
+
+    /**
+     * Ни одного заданного поля: такой фильтр пропускает весь каталог
+     */
+    public static boolean unrestricted(BeerFilter filter) {
+        return conditions(filter).isEmpty();
+    }
+
+    private static List<Condition> conditions(BeerFilter filter) {
+        List<Condition> conditions = new ArrayList<>();
+        if (StringUtils.hasText(filter.getBeerName())) {
+            conditions.add(nameContains(filter.getBeerName()));
+        }
+        if (filter.getBeerStyle() != null && !filter.getBeerStyle().isEmpty()) {
+            conditions.add((beer, criteria, cb) -> beer.get("beerStyle").in(filter.getBeerStyle()));
+        }
+        if (filter.getCategoryId() != null) {
+            conditions.add(inCategory(filter.getCategoryId()));
+        }
+        addRange(conditions, "price", filter.getMinPrice(), filter.getMaxPrice());
+        addRange(conditions, "quantityOnHand", filter.getMinQuantity(), filter.getMaxQuantity());
+        if (StringUtils.hasText(filter.getUpcPrefix())) {
+            conditions.add((beer, criteria, cb) -> cb.like(beer.get("upc"), escape(filter.getUpcPrefix()) + "%", '\\'));
+        }
+        addRange(conditions, "createdDate", filter.getCreatedFrom(), filter.getCreatedTo());
+        addRange(conditions, "updateDate", filter.getUpdatedFrom(), filter.getUpdatedTo());
+        return conditions;
+    }
+
+    private static Condition nameContains(String beerName) {
+        String pattern = "%" + escape(beerName.toUpperCase(Locale.ROOT)) + "%";
+        return (beer, criteria, cb) -> cb.like(cb.upper(beer.get("beerName")), pattern, '\\');
+    }
+
+    private static Condition inCategory(UUID categoryId) {
+        return (beer, criteria, cb) -> {
+            Subquery<Integer> subquery = criteria.subquery(Integer.class);
+            Root<Beer> correlated = subquery.correlate(beer);
+            Join<Beer, ?> category = correlated.join("categories");
+            subquery.select(cb.literal(1)).where(cb.equal(category.get("id"), categoryId));
+            return cb.exists(subquery);
+        };
+    }
+
+    private static <T extends Comparable<? super T>> void addRange(List<Condition> conditions, String attribute,
+                                                                  T from, T to) {
+        if (from != null) {
+            conditions.add((beer, criteria, cb) -> cb.greaterThanOrEqualTo(beer.get(attribute), from));
+        }
+        if (to != null) {
+            conditions.add((beer, criteria, cb) -> cb.lessThanOrEqualTo(beer.get(attribute), to));
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
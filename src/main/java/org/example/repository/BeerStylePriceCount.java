@@ -0,0 +1,14 @@
+package org.example.repository;
+
+import org.example.dto.BeerStyle;
+
+import java.math.BigDecimal;
+
+public interface BeerStylePriceCount {
+
+    BeerStyle getBeerStyle();
+
+    BigDecimal getPrice();
+
+    long getBeers();
+}
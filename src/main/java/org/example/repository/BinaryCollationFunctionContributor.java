@@ -0,0 +1,23 @@
+package org.example.repository;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.type.StandardBasicTypes;
+
+/**
+ * HQL-функция binary_collate(x): сравнение строк побайтно, как в индексе имён в памяти, при этом у колонки
+ * остаётся её collation, и upper()/like по-прежнему работают с не-ASCII. На PostgreSQL это x collate "C",
+ * H2 и так сравнивает строки без учёта локали.
+ */
+public class BinaryCollationFunctionContributor implements FunctionContributor {
+
+    public static final String BINARY_COLLATE = "binary_collate";
+
+    @Override
+    public void contributeFunctions(FunctionContributions functionContributions) {
+        String pattern = functionContributions.getDialect() instanceof PostgreSQLDialect ? "(?1 collate \"C\")" : "(?1)";
+        functionContributions.getFunctionRegistry().registerPattern(BINARY_COLLATE, pattern,
+                functionContributions.getTypeConfiguration().getBasicTypeRegistry().resolve(StandardBasicTypes.STRING));
+    }
+}
@@ -0,0 +1,9 @@
+package org.example.repository;
+
+import org.example.entity.Category;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.UUID;
+
+public interface CategoryRepository extends JpaRepository<Category, UUID> {
+}
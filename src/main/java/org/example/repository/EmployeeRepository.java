@@ -18,13 +18,13 @@ public interface EmployeeRepository extends JpaRepository<Employee, Long> {
     Employee findByJPQLNamedParams(@Param("firstName") String firstName, @Param("lastName") String lastName);
 
     @Query(value = "select * " +
-            "from test.public.employees e " +
+            "from \"test-practice\".employees e " +
             "where e.first_name = ?1 and e.last_name = ?2",
             nativeQuery = true)
     Employee findByNativeSQL(String firstName, String lastName);
 
     @Query(value = "select * " +
-            "from test.public.employees e " +
+            "from \"test-practice\".employees e " +
             "where e.first_name = :firstName and e.last_name = :lastName",
             nativeQuery = true)
     Employee findByNativeSQLNamed(@Param("firstName") String firstName, @Param("lastName") String lastName);
@@ -1,7 +1,19 @@
 package org.example.repository;
 
+import jakarta.persistence.QueryHint;
 import org.example.entity.Ingredient;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.util.List;
 
 public interface IngredientRepository extends JpaRepository<Ingredient, String> {
+
+    /**
+     * Список для формы тако берётся из кэша запросов; сами ингредиенты - из региона ingredient
+     */
+    @Override
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
+    List<Ingredient> findAll();
 }
@@ -1,7 +1,16 @@
 package org.example.repository;
 
 import org.example.entity.TacoOrder;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
 
 public interface OrderRepository extends CrudRepository<TacoOrder, Long> {
+
+    @Query("select o.submissionId from TacoOrder o where o.submissionId in :submissionIds")
+    List<UUID> findExistingSubmissionIds(@Param("submissionIds") Collection<UUID> submissionIds);
 }
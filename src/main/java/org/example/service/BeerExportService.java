@@ -0,0 +1,9 @@
+package org.example.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface BeerExportService {
+
+    long exportBeers(OutputStream out) throws IOException;
+}
@@ -0,0 +1,12 @@
+package org.example.service;
+
+import org.example.dto.BeerImportFormat;
+import org.example.dto.BeerImportReport;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface BeerImportService {
+
+    BeerImportReport importBeers(InputStream body, BeerImportFormat format, Integer batchSize) throws IOException;
+}
@@ -0,0 +1,12 @@
+package org.example.service;
+
+import java.util.UUID;
+
+public interface BeerInventoryService {
+
+    long increment(UUID beerId, int quantity);
+
+    long decrement(UUID beerId, int quantity);
+
+    int flush();
+}
@@ -1,9 +1,18 @@
 package org.example.service;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import org.example.dto.BeerCountDTO;
+import org.example.dto.BeerCursorPage;
 import org.example.dto.BeerDTO;
+import org.example.dto.BeerFilter;
 import org.example.dto.BeerStyle;
+import org.example.dto.BeerStyleFacetDTO;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -11,13 +20,35 @@ public interface BeerService {
 
     Page<BeerDTO> listBeers(String beerName, BeerStyle beerStyle, Boolean showInventory, Integer pageName, Integer pageSize);
 
+    Page<BeerDTO> listBeers(BeerFilter filter, boolean includeCategories, Boolean showInventory,
+                            Integer pageNumber, Integer pageSize, List<String> sort);
+
+    Slice<BeerDTO> listBeersSlice(BeerFilter filter, Boolean showInventory, Integer pageNumber, Integer pageSize);
+
+    BeerCountDTO countBeers(BeerFilter filter);
+
+    List<BeerStyleFacetDTO> styleFacets(boolean withPrices);
+
+    BeerCursorPage listBeersByCursor(BeerFilter filter, Boolean showInventory, String cursor, Integer pageSize);
+
     Optional<BeerDTO> getBeerById(UUID id);
 
+    Optional<Integer> getBeerVersion(UUID id);
+
     BeerDTO saveNewBeer(BeerDTO beer);
 
-    Optional<BeerDTO> updateBeerById(UUID beerId, BeerDTO beer);
+    Optional<BeerDTO> updateBeerById(UUID beerId, BeerDTO beer, Integer expectedVersion);
 
     Boolean deleteById(UUID beerId);
 
-    void patchById(UUID beerId, BeerDTO beer);
+    int deleteByIds(Collection<UUID> beerIds);
+
+    /**
+     * Пустой фильтр меняет весь каталог, поэтому без all = true он отклоняется
+     */
+    int repriceBeers(BeerFilter filter, boolean all, BigDecimal percent);
+
+    int restockBeers(BeerFilter filter, boolean all, int quantity);
+
+    Optional<BeerDTO> patchById(UUID beerId, JsonNode patch, Integer expectedVersion);
 }
@@ -0,0 +1,30 @@
+package org.example.service;
+
+import org.example.entity.TacoOrder;
+
+import java.util.function.Consumer;
+
+/**
+ * Черновик заказа между /design и /orders: тако, собранные до оформления. Доставка и оплата приходят
+ * одной формой при оформлении и в черновике не хранятся.
+ */
+public interface DraftOrderStore {
+
+    /**
+     * Черновик с тако или новый пустой заказ, если черновика нет или он вытеснен. Тако, собранные из
+     * ингредиентов, которых больше нет, в заказ не входят и перечислены в {@link TacoOrder#getUnavailableTacos()}
+     */
+    TacoOrder load(String draftId);
+
+    void save(String draftId, TacoOrder draft);
+
+    /**
+     * load, change и save одного черновика под его блокировкой: параллельные запросы той же сессии
+     * не затирают изменения друг друга
+     *
+     * @return сохранённый черновик
+     */
+    TacoOrder update(String draftId, Consumer<TacoOrder> change);
+
+    void remove(String draftId);
+}
@@ -0,0 +1,11 @@
+package org.example.service;
+
+import org.example.entity.TacoOrder;
+
+public interface OrderService {
+
+    /**
+     * Принимает проверенный заказ; после возврата заказ не потеряется, даже если запись в базу ещё впереди
+     */
+    void placeOrder(TacoOrder order);
+}
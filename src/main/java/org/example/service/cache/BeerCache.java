@@ -0,0 +1,118 @@
+package org.example.service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.dto.BeerDTO;
+import org.example.event.BeerChangedEvent;
+import org.example.event.BeersBulkChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Ограниченный по размеру кэш BeerDTO по beerId. Запись заменяется только более новой версией,
+ * поэтому медленная загрузка не может затереть то, что уже записал updateBeerById.
+ */
+@Component
+public class BeerCache {
+
+    public static final String NAME = "beerById";
+
+    private final Cache<UUID, BeerDTO> cache;
+    /**
+     * Поколение вытеснений: растёт перед каждым evict и evictAll
+     */
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public BeerCache(@Value("${beer.cache.maximum-size:10000}") long maximumSize, MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, NAME);
+    }
+
+    /**
+     * Загрузка идёт вне Cache.get(key, loader): тот вызывает loader внутри ConcurrentHashMap.compute,
+     * и JDBC под монитором корзины закрепил бы виртуальный поток за несущим. Если за время загрузки
+     * что-то было вытеснено, загруженное в кэш не кладётся: оно могло быть прочитано до удаления
+     */
+    public Optional<BeerDTO> get(UUID beerId, Function<UUID, BeerDTO> loader) {
+        BeerDTO cached = cache.getIfPresent(beerId);
+        if (cached == null) {
+            long seen = invalidations.get();
+            cached = loader.apply(beerId);
+            if (cached == null) {
+                return Optional.empty();
+            }
+            BeerDTO loaded = copy(cached);
+            // проверка поколения внутри compute той же корзины, что и invalidate: вытеснение либо уже
+            // увеличило счётчик, либо удалит положенную запись после нас
+            cache.asMap().compute(beerId, (id, current) -> invalidations.get() != seen ? current
+                    : current == null || version(loaded) >= version(current) ? loaded : current);
+        }
+        return Optional.of(copy(cached));
+    }
+
+    public Optional<BeerDTO> getIfPresent(UUID beerId) {
+        return Optional.ofNullable(cache.getIfPresent(beerId)).map(BeerCache::copy);
+    }
+
+    public void put(BeerDTO beer) {
+        cache.asMap().merge(beer.getBeerId(), copy(beer),
+                (cached, fresh) -> version(fresh) >= version(cached) ? fresh : cached);
+    }
+
+    public void evict(UUID beerId) {
+        invalidations.incrementAndGet();
+        cache.invalidate(beerId);
+    }
+
+    public void evictAll() {
+        invalidations.incrementAndGet();
+        cache.invalidateAll();
+    }
+
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+
+    /**
+     * Новое пиво в кэш не кладётся: его ещё никто не читал, а импорт на тысячи строк вытеснил бы всё горячее
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        if (event.before() == null) {
+            return;
+        }
+        if (event.after() != null) {
+            put(event.after());
+        } else {
+            evict(event.before().getBeerId());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeersBulkChanged(BeersBulkChangedEvent event) {
+        if (event.operation() == BeersBulkChangedEvent.Operation.DELETED) {
+            event.beerIds().forEach(this::evict);
+        } else {
+            evictAll();
+        }
+    }
+
+    private static BeerDTO copy(BeerDTO beer) {
+        return beer.toBuilder().build();
+    }
+
+    private static int version(BeerDTO beer) {
+        return beer.getVersion() == null ? -1 : beer.getVersion();
+    }
+}
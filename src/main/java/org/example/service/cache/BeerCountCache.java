@@ -0,0 +1,93 @@
+package org.example.service.cache;
+
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.example.dto.BeerCountDTO;
+import org.example.dto.BeerFilter;
+import org.example.event.BeersBulkChangedEvent;
+import org.example.repository.BeerRepository;
+import org.example.repository.BeerSpecifications;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+
+/**
+ * Приблизительные итоги списка по фильтру. Значение отдаётся сразу,
+ * а после refresh-after пересчитывается в фоне, так что COUNT(*) выполняется не чаще раза за период на ключ.
+ * Кэш асинхронный: COUNT(*) выполняется в applicationTaskExecutor, а не внутри ConcurrentHashMap.compute,
+ * поэтому ждущий запрос не держит монитор и с виртуальными потоками не закрепляется за несущим.
+ */
+@Component
+public class BeerCountCache {
+
+    public static final String NAME = "beerCount";
+
+    private final AsyncLoadingCache<BeerFilter, BeerCountDTO> cache;
+
+    public BeerCountCache(BeerRepository beerRepository,
+                          @Value("${beer.count-cache.refresh-after:PT30S}") Duration refreshAfter,
+                          @Value("${beer.count-cache.expire-after-access:PT10M}") Duration expireAfterAccess,
+                          @Value("${beer.count-cache.maximum-size:1000}") long maximumSize,
+                          @Qualifier("applicationTaskExecutor") Executor executor,
+                          MeterRegistry meterRegistry) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .refreshAfterWrite(refreshAfter)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .executor(executor)
+                .buildAsync(filter -> new BeerCountDTO(
+                        beerRepository.count(BeerSpecifications.matching(filter)), LocalDateTime.now()));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), NAME);
+    }
+
+    public BeerCountDTO get(BeerFilter filter) {
+        try {
+            return cache.get(key(filter)).join();
+        } catch (CompletionException e) {
+            // ошибки загрузки отдаём как есть, а не обёрнутыми в CompletionException
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public void invalidateAll() {
+        cache.synchronous().invalidateAll();
+    }
+
+    /**
+     * Массовое удаление заметно сдвигает итоги, ждать refresh-after здесь не стоит
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeersBulkChanged(BeersBulkChangedEvent event) {
+        if (event.operation() == BeersBulkChangedEvent.Operation.DELETED) {
+            invalidateAll();
+        }
+    }
+
+    /**
+     * Копия фильтра: ключ не меняется вместе с объектом запроса, а имя и пустой список стилей
+     * приводятся к одному виду, как их всё равно понимает where
+     */
+    private static BeerFilter key(BeerFilter filter) {
+        return filter.toBuilder()
+                .beerName(StringUtils.hasText(filter.getBeerName()) ? filter.getBeerName().toLowerCase(Locale.ROOT) : null)
+                .beerStyle(filter.getBeerStyle() == null || filter.getBeerStyle().isEmpty()
+                        ? null
+                        : List.copyOf(filter.getBeerStyle()))
+                .build();
+    }
+}
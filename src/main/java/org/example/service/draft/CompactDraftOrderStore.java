@@ -0,0 +1,233 @@
+package org.example.service.draft;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.example.entity.Ingredient;
+import org.example.entity.Taco;
+import org.example.entity.TacoOrder;
+import org.example.service.DraftOrderStore;
+import org.example.service.ingredient.IngredientSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Черновики вне сессии в компактном виде: имя и время создания тако плюс id ингредиентов, сами Ingredient
+ * восстанавливаются из {@link IngredientSnapshot}. Общий объём ограничен по байтам: при переполнении
+ * вытесняются черновики, которых дольше всех не касались (LRU), а нетронутые дольше ttl истекают.
+ * <p>
+ * Не Caffeine: его TinyLFU при заполнении отказывает новой записи с частотой 1, а потерять только что
+ * сохранённый черновик хуже, чем забытый полчаса назад.
+ */
+@Component
+@ConditionalOnProperty(name = "taco.drafts.store", havingValue = "compact", matchIfMissing = true)
+public class CompactDraftOrderStore implements DraftOrderStore {
+
+    /**
+     * Ключ, узел LinkedHashMap, запись и заголовок массива
+     */
+    private static final int ENTRY_OVERHEAD = 128;
+
+    private final IngredientSnapshot ingredientSnapshot;
+    private final long maximumBytes;
+    private final long ttlNanos;
+
+    private final Lock lock = new ReentrantLock();
+    private final DraftLocks draftLocks = new DraftLocks();
+    /**
+     * Порядок доступа: в голове черновик, которого дольше всех не касались
+     */
+    private final LinkedHashMap<String, Entry> drafts = new LinkedHashMap<>(256, 0.75f, true);
+    private long bytes;
+
+    /**
+     * draft после сохранения не меняется, поэтому отдаётся для чтения без копии
+     */
+    private record Entry(byte[] draft, long weight, long accessedAt) {
+    }
+
+    public CompactDraftOrderStore(IngredientSnapshot ingredientSnapshot, MeterRegistry meterRegistry,
+                                  @Value("${taco.drafts.maximum-size:64MB}") DataSize maximumSize,
+                                  @Value("${taco.drafts.ttl:PT30M}") Duration ttl) {
+        this.ingredientSnapshot = ingredientSnapshot;
+        this.maximumBytes = maximumSize.toBytes();
+        this.ttlNanos = ttl.toNanos();
+        Gauge.builder("taco.drafts.size", this, CompactDraftOrderStore::size)
+                .description("Draft orders held in the store")
+                .register(meterRegistry);
+        Gauge.builder("taco.drafts.bytes", this, CompactDraftOrderStore::weightedSize)
+                .description("Bytes held by draft orders, including per-entry overhead")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public TacoOrder load(String draftId) {
+        byte[] draft;
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            expire(now);
+            Entry entry = drafts.get(draftId);
+            if (entry == null) {
+                return new TacoOrder();
+            }
+            // get уже перенёс запись в хвост; время доступа обновляется заменой записи
+            drafts.put(draftId, new Entry(entry.draft(), entry.weight(), now));
+            draft = entry.draft();
+        } finally {
+            lock.unlock();
+        }
+        return decode(draft);
+    }
+
+    @Override
+    public void save(String draftId, TacoOrder draft) {
+        byte[] encoded = encode(draft);
+        long weight = ENTRY_OVERHEAD + draftId.length() * 2L + encoded.length;
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            Entry previous = drafts.put(draftId, new Entry(encoded, weight, now));
+            bytes += weight - (previous == null ? 0 : previous.weight());
+            expire(now);
+            evict();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public TacoOrder update(String draftId, Consumer<TacoOrder> change) {
+        return draftLocks.locked(draftId, () -> {
+            TacoOrder draft = load(draftId);
+            change.accept(draft);
+            save(draftId, draft);
+            return draft;
+        });
+    }
+
+    @Override
+    public void remove(String draftId) {
+        lock.lock();
+        try {
+            Entry removed = drafts.remove(draftId);
+            if (removed != null) {
+                bytes -= removed.weight();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        lock.lock();
+        try {
+            return drafts.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Занятый черновиками объём в байтах с учётом служебных полей записей
+     */
+    public long weightedSize() {
+        lock.lock();
+        try {
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * В порядке доступа просроченные записи стоят в голове, поэтому проход останавливается на первой живой
+     */
+    private void expire(long now) {
+        Iterator<Entry> eldest = drafts.values().iterator();
+        while (eldest.hasNext()) {
+            Entry entry = eldest.next();
+            if (now - entry.accessedAt() < ttlNanos) {
+                return;
+            }
+            eldest.remove();
+            bytes -= entry.weight();
+        }
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<String, Entry>> eldest = drafts.entrySet().iterator();
+        // последний сохранённый черновик остаётся, даже если один превышает лимит
+        while (bytes > maximumBytes && drafts.size() > 1) {
+            bytes -= eldest.next().getValue().weight();
+            eldest.remove();
+        }
+    }
+
+    /**
+     * [число тако] и для каждого [имя][createdAt][число ингредиентов][id...]; строки в modified UTF-8
+     */
+    private static byte[] encode(TacoOrder draft) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeShort(draft.getTacos().size());
+            for (Taco taco : draft.getTacos()) {
+                out.writeUTF(taco.getName());
+                out.writeLong(taco.getCreatedAt().getTime());
+                out.writeShort(taco.getIngredients().size());
+                for (Ingredient ingredient : taco.getIngredients()) {
+                    out.writeUTF(ingredient.getId());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private TacoOrder decode(byte[] draft) {
+        TacoOrder order = new TacoOrder();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(draft))) {
+            int tacos = in.readUnsignedShort();
+            for (int i = 0; i < tacos; i++) {
+                Taco taco = new Taco();
+                taco.setName(in.readUTF());
+                taco.setCreatedAt(new Date(in.readLong()));
+                int ingredients = in.readUnsignedShort();
+                boolean available = true;
+                for (int j = 0; j < ingredients; j++) {
+                    Optional<Ingredient> ingredient = ingredientSnapshot.byId(in.readUTF());
+                    ingredient.ifPresent(taco::addIngredient);
+                    available &= ingredient.isPresent();
+                }
+                // тако без удалённого после сборки ингредиента не урезается молча, а снимается с пометкой
+                if (available) {
+                    order.addTaco(taco);
+                } else {
+                    order.getUnavailableTacos().add(taco.getName());
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return order;
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.service.draft;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Блокировки черновиков по хэшу draftId: фиксированный набор вместо блокировки на каждый черновик,
+ * которую пришлось бы удалять вместе с ним
+ */
+final class DraftLocks {
+
+    private static final int STRIPES = 64;
+
+    private final Lock[] locks = new Lock[STRIPES];
+
+    DraftLocks() {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    <T> T locked(String draftId, Supplier<T> action) {
+        Lock lock = locks[Math.floorMod(draftId.hashCode(), STRIPES)];
+        lock.lock();
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+}
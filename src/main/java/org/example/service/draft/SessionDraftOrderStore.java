@@ -0,0 +1,53 @@
+package org.example.service.draft;
+
+import org.example.entity.TacoOrder;
+import org.example.service.DraftOrderStore;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.function.Consumer;
+
+/**
+ * Прежнее поведение: TacoOrder с сущностями Ingredient целиком лежит в HTTP-сессии текущего запроса,
+ * draftId не используется. Включается taco.drafts.store=session.
+ */
+@Component
+@ConditionalOnProperty(name = "taco.drafts.store", havingValue = "session")
+public class SessionDraftOrderStore implements DraftOrderStore {
+
+    private static final String ATTRIBUTE = "tacoOrder";
+
+    private final DraftLocks draftLocks = new DraftLocks();
+
+    @Override
+    public TacoOrder load(String draftId) {
+        Object draft = session().getAttribute(ATTRIBUTE, RequestAttributes.SCOPE_SESSION);
+        return draft instanceof TacoOrder order ? order : new TacoOrder();
+    }
+
+    @Override
+    public void save(String draftId, TacoOrder draft) {
+        session().setAttribute(ATTRIBUTE, draft, RequestAttributes.SCOPE_SESSION);
+    }
+
+    @Override
+    public TacoOrder update(String draftId, Consumer<TacoOrder> change) {
+        return draftLocks.locked(draftId, () -> {
+            TacoOrder draft = load(draftId);
+            change.accept(draft);
+            save(draftId, draft);
+            return draft;
+        });
+    }
+
+    @Override
+    public void remove(String draftId) {
+        session().removeAttribute(ATTRIBUTE, RequestAttributes.SCOPE_SESSION);
+    }
+
+    private static RequestAttributes session() {
+        return RequestContextHolder.currentRequestAttributes();
+    }
+}
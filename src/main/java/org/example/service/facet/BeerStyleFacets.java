@@ -0,0 +1,139 @@
+package org.example.service.facet;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.BeerDTO;
+import org.example.dto.BeerStyle;
+import org.example.dto.BeerStyleFacetDTO;
+import org.example.event.BeerChangedEvent;
+import org.example.event.BeersBulkChangedEvent;
+import org.example.repository.BeerRepository;
+import org.example.repository.BeerStylePriceCount;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Счётчики пива по стилям и мультимножество цен для min/max/avg.
+ * Один GROUP BY при старте и при редкой сверке, между ними только BeerChangedEvent - чтение не трогает таблицу beer.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BeerStyleFacets {
+
+    private final BeerRepository beerRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<BeerStyle, Facet> facets = new EnumMap<>(BeerStyle.class);
+
+    /**
+     * GROUP BY и замена агрегатов под одной блокировкой записи, поэтому событие не теряется при clear().
+     * Учесть событие дважды всё же можно: транзакция зафиксирована до запроса, а её AFTER_COMMIT-слушатель
+     * дошёл до блокировки после. Агрегат не знает, какие строки видел запрос, поэтому такой сдвиг
+     * исправляет периодическая сверка (beer.facets.reconcile-interval), а не сами события.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${beer.facets.reconcile-interval:PT5M}",
+            fixedDelayString = "${beer.facets.reconcile-interval:PT5M}")
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            List<BeerStylePriceCount> counts = beerRepository.countByStyleAndPrice();
+            facets.clear();
+            counts.forEach(row -> add(row.getBeerStyle(), row.getPrice(), row.getBeers()));
+            log.debug("Beer style facets built: {} styles", facets.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Все стили, включая пустые; цены только по запросу
+     */
+    public List<BeerStyleFacetDTO> styles(boolean withPrices) {
+        lock.readLock().lock();
+        try {
+            List<BeerStyleFacetDTO> result = new ArrayList<>();
+            for (BeerStyle beerStyle : BeerStyle.values()) {
+                Facet facet = facets.get(beerStyle);
+                if (facet == null) {
+                    result.add(new BeerStyleFacetDTO(beerStyle, 0, null, null, null));
+                } else if (!withPrices || facet.prices.isEmpty()) {
+                    result.add(new BeerStyleFacetDTO(beerStyle, facet.count, null, null, null));
+                } else {
+                    result.add(new BeerStyleFacetDTO(beerStyle, facet.count,
+                            facet.prices.firstKey(), facet.prices.lastKey(),
+                            facet.priceSum.divide(BigDecimal.valueOf(facet.priced), 2, RoundingMode.HALF_UP)));
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            BeerDTO before = event.before();
+            if (before != null) {
+                add(before.getBeerStyle(), before.getPrice(), -1);
+            }
+            BeerDTO after = event.after();
+            if (after != null) {
+                add(after.getBeerStyle(), after.getPrice(), 1);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Прежние цены массового UPDATE неизвестны, поэтому агрегаты пересчитываются одним GROUP BY
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeersBulkChanged(BeersBulkChangedEvent event) {
+        if (event.operation() != BeersBulkChangedEvent.Operation.RESTOCKED) {
+            rebuild();
+        }
+    }
+
+    private void add(BeerStyle beerStyle, BigDecimal price, long beers) {
+        if (beerStyle == null) {
+            return;
+        }
+        Facet facet = facets.computeIfAbsent(beerStyle, style -> new Facet());
+        facet.count += beers;
+        if (price != null) {
+            facet.priced += beers;
+            facet.priceSum = facet.priceSum.add(price.multiply(BigDecimal.valueOf(beers)));
+            facet.prices.merge(price, beers, (current, delta) -> current + delta == 0 ? null : current + delta);
+        }
+        if (facet.count <= 0) {
+            facets.remove(beerStyle);
+        }
+    }
+
+    private static final class Facet {
+        private long count;
+        private long priced;
+        private BigDecimal priceSum = BigDecimal.ZERO;
+        private final TreeMap<BigDecimal, Long> prices = new TreeMap<>();
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.example.dto.BeerDTO;
+import org.example.entity.Beer;
+import org.example.mapper.BeerMapper;
+import org.example.repository.BeerRepository;
+import org.example.service.BeerExportService;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+/**
+ * Выгрузка каталога в NDJSON напрямую из курсора: каждая сущность отсоединяется сразу после записи,
+ * поэтому контекст персистентности не растёт.
+ */
+@Service
+@RequiredArgsConstructor
+public class BeerExportServiceImpl implements BeerExportService {
+
+    private static final byte NEW_LINE = '\n';
+
+    private final BeerRepository beerRepository;
+    private final BeerMapper beerMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+
+    @Override
+    @Transactional(readOnly = true)
+    public long exportBeers(OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(BeerDTO.class);
+        long count = 0;
+        try (Stream<Beer> beers = beerRepository.streamAll()) {
+            for (Beer beer : (Iterable<Beer>) beers::iterator) {
+                out.write(writer.writeValueAsBytes(beerMapper.beerToBeerDTO(beer)));
+                out.write(NEW_LINE);
+                entityManager.detach(beer);
+                count++;
+            }
+        }
+        out.flush();
+        return count;
+    }
+}
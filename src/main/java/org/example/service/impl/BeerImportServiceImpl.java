@@ -0,0 +1,312 @@
+package org.example.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.BeerDTO;
+import org.example.dto.BeerImportError;
+import org.example.dto.BeerImportFormat;
+import org.example.dto.BeerImportReport;
+import org.example.dto.BeerStyle;
+import org.example.entity.Beer;
+import org.example.event.BeerChangedEvent;
+import org.example.mapper.BeerMapper;
+import org.example.service.BeerImportService;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+/**
+ * Потоковый импорт: строки читаются по одной, в памяти держится только текущая пачка,
+ * каждая пачка вставляется JDBC-батчем и коммитится отдельно.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BeerImportServiceImpl implements BeerImportService {
+
+    private static final int MAX_BATCH_SIZE = 5000;
+    private static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final EntityManager entityManager;
+    private final PlatformTransactionManager transactionManager;
+    private final BeerMapper beerMapper;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${beer.import.batch-size:500}")
+    private int defaultBatchSize;
+
+    @Value("${beer.import.max-line-length:65536}")
+    private int maxLineLength;
+
+    @Override
+    public BeerImportReport importBeers(InputStream body, BeerImportFormat format, Integer batchSize) throws IOException {
+        int chunkSize = batchSize == null || batchSize < 1 ? defaultBatchSize : Math.min(batchSize, MAX_BATCH_SIZE);
+        Progress progress = new Progress();
+        List<Beer> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkRows = new ArrayList<>(chunkSize);
+
+        LineReader reader = new LineReader(
+                new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8)), maxLineLength);
+        long row = 0;
+        Map<String, Integer> header = null;
+        if (format == BeerImportFormat.CSV) {
+            row++;
+            String line = reader.next();
+            if (reader.oversized) {
+                progress.error(row, null, "Header longer than " + maxLineLength + " characters");
+                line = null;
+            }
+            header = readCsvHeader(line);
+        }
+
+        String line;
+        while ((line = reader.next()) != null) {
+            row++;
+            if (reader.oversized) {
+                progress.rows++;
+                progress.error(row, null, "Row longer than " + maxLineLength + " characters");
+                continue;
+            }
+            if (!StringUtils.hasText(line)) {
+                continue;
+            }
+            progress.rows++;
+            Beer beer = toBeer(row, line, format, header, progress);
+            if (beer == null) {
+                continue;
+            }
+            chunk.add(beer);
+            chunkRows.add(row);
+            if (chunk.size() == chunkSize) {
+                writeChunk(chunk, chunkRows, progress);
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, chunkRows, progress);
+        }
+
+        return BeerImportReport.builder()
+                .rows(progress.rows)
+                .accepted(progress.accepted)
+                .rejected(progress.rows - progress.accepted)
+                .errors(progress.errors)
+                .errorsTruncated(progress.errorsTruncated)
+                .build();
+    }
+
+    private Beer toBeer(long row, String line, BeerImportFormat format, Map<String, Integer> header, Progress progress) {
+        BeerDTO dto;
+        try {
+            dto = format == BeerImportFormat.CSV ? parseCsv(line, header) : objectMapper.readValue(line, BeerDTO.class);
+        } catch (JsonProcessingException e) {
+            progress.error(row, null, "Malformed JSON: " + e.getOriginalMessage());
+            return null;
+        } catch (RowException e) {
+            progress.error(row, e.field, e.getMessage());
+            return null;
+        }
+        if (dto == null) {
+            progress.error(row, null, "Empty row");
+            return null;
+        }
+
+        Set<ConstraintViolation<BeerDTO>> dtoViolations = validator.validate(dto);
+        if (!dtoViolations.isEmpty()) {
+            dtoViolations.forEach(v -> progress.error(row, v.getPropertyPath().toString(), v.getMessage()));
+            return null;
+        }
+        Beer beer = beerMapper.beerDtoToBeer(dto);
+        beer.setBeerId(null);
+        beer.setVersion(null);
+        // ограничения сущности (длина имени, upc) проверяем здесь, чтобы не откатывать из-за них всю пачку
+        Set<ConstraintViolation<Beer>> beerViolations = validator.validate(beer);
+        if (!beerViolations.isEmpty()) {
+            beerViolations.forEach(v -> progress.error(row, v.getPropertyPath().toString(), v.getMessage()));
+            return null;
+        }
+        return beer;
+    }
+
+    private void writeChunk(List<Beer> chunk, List<Long> chunkRows, Progress progress) {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                entityManager.unwrap(Session.class).setJdbcBatchSize(chunk.size());
+                chunk.forEach(entityManager::persist);
+                entityManager.flush();
+                chunk.forEach(beer -> eventPublisher.publishEvent(
+                        BeerChangedEvent.created(beerMapper.beerToBeerDTO(beer))));
+                entityManager.clear();
+            });
+            progress.accepted += chunk.size();
+        } catch (RuntimeException e) {
+            String message = "Batch rejected: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+            log.warn("Beer import batch of {} rows rejected", chunk.size(), e);
+            chunkRows.forEach(row -> progress.error(row, null, message));
+        } finally {
+            chunk.clear();
+            chunkRows.clear();
+        }
+    }
+
+    private static Map<String, Integer> readCsvHeader(String line) {
+        Map<String, Integer> header = new HashMap<>();
+        if (line != null) {
+            List<String> columns = splitCsv(line);
+            for (int i = 0; i < columns.size(); i++) {
+                header.put(columns.get(i).trim().toLowerCase(Locale.ROOT), i);
+            }
+        }
+        return header;
+    }
+
+    private static BeerDTO parseCsv(String line, Map<String, Integer> header) {
+        List<String> values = splitCsv(line);
+        String quantity = column(values, header, "quantityOnHand");
+        String price = column(values, header, "price");
+        String style = column(values, header, "beerStyle");
+        return BeerDTO.builder()
+                .beerName(column(values, header, "beerName"))
+                .upc(column(values, header, "upc"))
+                .beerStyle(style == null ? null : parse("beerStyle", () -> BeerStyle.valueOf(style.toUpperCase(Locale.ROOT))))
+                .quantityOnHand(quantity == null ? null : parse("quantityOnHand", () -> Integer.valueOf(quantity)))
+                .price(price == null ? null : parse("price", () -> new BigDecimal(price)))
+                .build();
+    }
+
+    private static String column(List<String> values, Map<String, Integer> header, String name) {
+        Integer index = header.get(name.toLowerCase(Locale.ROOT));
+        if (index == null || index >= values.size()) {
+            return null;
+        }
+        String value = values.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static <T> T parse(String field, Supplier<T> parser) {
+        try {
+            return parser.get();
+        } catch (IllegalArgumentException e) {
+            throw new RowException(field, "Invalid value for " + field);
+        }
+    }
+
+    private static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        values.add(current.toString());
+        return values;
+    }
+
+    /**
+     * readLine без предела длины: одна строка без перевода держала бы в памяти всё тело запроса.
+     * Здесь лишние символы строки пропускаются, а сама строка помечается как oversized
+     */
+    private static final class LineReader {
+        private final Reader reader;
+        private final int maxLength;
+        private final StringBuilder line = new StringBuilder();
+        private boolean oversized;
+
+        LineReader(Reader reader, int maxLength) {
+            this.reader = reader;
+            this.maxLength = maxLength;
+        }
+
+        String next() throws IOException {
+            line.setLength(0);
+            oversized = false;
+            boolean read = false;
+            int c;
+            while ((c = reader.read()) != -1) {
+                read = true;
+                if (c == '\n') {
+                    break;
+                }
+                if (line.length() < maxLength) {
+                    line.append((char) c);
+                } else {
+                    oversized = true;
+                }
+            }
+            if (!read) {
+                return null;
+            }
+            if (!oversized && !line.isEmpty() && line.charAt(line.length() - 1) == '\r') {
+                line.setLength(line.length() - 1);
+            }
+            return line.toString();
+        }
+    }
+
+    private static final class Progress {
+        private long rows;
+        private long accepted;
+        private final List<BeerImportError> errors = new ArrayList<>();
+        private boolean errorsTruncated;
+
+        void error(long row, String field, String message) {
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(new BeerImportError(row, field, message));
+            } else {
+                errorsTruncated = true;
+            }
+        }
+    }
+
+    private static final class RowException extends RuntimeException {
+        private final String field;
+
+        RowException(String field, String message) {
+            super(message);
+            this.field = field;
+        }
+    }
+}
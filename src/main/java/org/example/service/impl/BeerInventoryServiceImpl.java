@@ -0,0 +1,266 @@
+package org.example.service.impl;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.event.BeerChangedEvent;
+import org.example.event.BeersBulkChangedEvent;
+import org.example.exception.InsufficientStockException;
+import org.example.exception.NotfoundException;
+import org.example.repository.BeerRepository;
+import org.example.service.BeerInventoryService;
+import org.example.service.cache.BeerCache;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Остатки меняются в памяти без чтения и версионной записи строки Beer.
+ * available - сколько можно зарезервировать прямо сейчас (CAS с полом в ноль),
+ * pending - ещё не записанная в базу дельта, которая периодически сбрасывается одним батчем UPDATE.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class BeerInventoryServiceImpl implements BeerInventoryService {
+
+    private static final String FLUSH_SQL = "update \"test-practice\".beer " +
+            "set quantity_on_hand = greatest(coalesce(quantity_on_hand, 0) + ?, 0), " +
+            "version = version + 1, update_date = ? " +
+            "where beer_id = ?";
+
+    private final BeerRepository beerRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final PlatformTransactionManager transactionManager;
+    private final BeerCache beerCache;
+
+    private final ConcurrentMap<UUID, Counter> counters = new ConcurrentHashMap<>();
+    private final Lock flushLock = new ReentrantLock();
+
+    @Override
+    public long increment(UUID beerId, int quantity) {
+        return counter(beerId).add(quantity);
+    }
+
+    @Override
+    public long decrement(UUID beerId, int quantity) {
+        return counter(beerId).take(beerId, quantity);
+    }
+
+    @Override
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${beer.inventory.flush-interval:PT1S}")
+    public int flush() {
+        flushLock.lock();
+        try {
+            List<UUID> beerIds = new ArrayList<>();
+            List<Long> deltas = new ArrayList<>();
+            counters.forEach((beerId, counter) -> {
+                long delta = counter.drain();
+                if (delta != 0) {
+                    beerIds.add(beerId);
+                    deltas.add(delta);
+                }
+            });
+            if (beerIds.isEmpty()) {
+                return 0;
+            }
+            return write(beerIds, deltas);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Запись остатков в обход PUT/PATCH: держим счётчик в согласии с новой строкой и забываем удалённое пиво
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        if (event.after() == null) {
+            if (event.before() != null) {
+                forget(List.of(event.before().getBeerId()));
+            }
+            return;
+        }
+        UUID beerId = event.after().getBeerId();
+        if (!counters.containsKey(beerId)) {
+            return;
+        }
+        // снимок after сделан до коммита: сброс между коммитом и resync уже записал бы pending в строку
+        // и обнулил его, поэтому строка перечитывается под той же блокировкой, что и сброс
+        flushLock.lock();
+        try {
+            Integer onHand = beerRepository.findQuantityOnHandByBeerId(beerId).orElse(null);
+            if (onHand == null) {
+                counters.remove(beerId);
+                return;
+            }
+            counters.computeIfPresent(beerId, (id, counter) -> {
+                counter.resync(onHand);
+                return counter;
+            });
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Массовое пополнение прибавляет к строке, а не перезаписывает её, поэтому несброшенные дельты остаются верны;
+     * отслеживаемые счётчики перечитываются одним запросом
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeersBulkChanged(BeersBulkChangedEvent event) {
+        switch (event.operation()) {
+            case DELETED -> forget(event.beerIds());
+            case RESTOCKED -> {
+                if (counters.isEmpty()) {
+                    return;
+                }
+                flushLock.lock();
+                try {
+                    beerRepository.findBeerDTOsByIds(List.copyOf(counters.keySet())).forEach(beer ->
+                            counters.computeIfPresent(beer.getBeerId(), (beerId, counter) -> {
+                                counter.resync(beer.getQuantityOnHand());
+                                return counter;
+                            }));
+                } finally {
+                    flushLock.unlock();
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    /**
+     * Под блокировкой сброса: иначе идущий сброс вернул бы неудавшиеся дельты удалённого пива обратно в счётчик
+     */
+    private void forget(Collection<UUID> beerIds) {
+        if (beerIds.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            beerIds.forEach(counters::remove);
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private int write(List<UUID> beerIds, List<Long> deltas) {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> batch = new ArrayList<>(beerIds.size());
+        for (int i = 0; i < beerIds.size(); i++) {
+            batch.add(new Object[]{deltas.get(i), now, beerIds.get(i)});
+        }
+        int[] updated;
+        try {
+            updated = new TransactionTemplate(transactionManager)
+                    .execute(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+        } catch (RuntimeException e) {
+            // пачка откатилась целиком: возвращаем дельты, следующий сброс их повторит
+            for (int i = 0; i < beerIds.size(); i++) {
+                Counter counter = counters.get(beerIds.get(i));
+                if (counter != null) {
+                    counter.restore(deltas.get(i));
+                }
+            }
+            log.warn("Inventory flush of {} beers failed, will retry", beerIds.size(), e);
+            return 0;
+        }
+        for (int i = 0; i < beerIds.size(); i++) {
+            beerCache.evict(beerIds.get(i));
+            if (updated != null && updated[i] == 0) {
+                counters.remove(beerIds.get(i));
+            }
+        }
+        return beerIds.size();
+    }
+
+    private Counter counter(UUID beerId) {
+        Counter counter = counters.get(beerId);
+        if (counter != null) {
+            return counter;
+        }
+        // запрос к базе вне computeIfAbsent, чтобы не держать блокировку корзины ConcurrentHashMap
+        int onHand = beerRepository.findQuantityOnHandByBeerId(beerId).orElseThrow(NotfoundException::new);
+        Counter created = new Counter(onHand);
+        Counter existing = counters.putIfAbsent(beerId, created);
+        return existing == null ? created : existing;
+    }
+
+    /**
+     * available и pending в одном long (старшие и младшие 32 бита): резерв и его несброшенная дельта меняются
+     * одним CAS, поэтому resync между ними не вклинится и не вернёт уже зарезервированное в available
+     */
+    private static final class Counter {
+        private final AtomicLong state;
+
+        Counter(int onHand) {
+            state = new AtomicLong(pack(Math.max(onHand, 0), 0));
+        }
+
+        long add(int quantity) {
+            return available(state.updateAndGet(current ->
+                    pack(Math.addExact(available(current), quantity), Math.addExact(pending(current), quantity))));
+        }
+
+        long take(UUID beerId, int quantity) {
+            return available(state.updateAndGet(current -> {
+                int available = available(current);
+                if (available < quantity) {
+                    throw new InsufficientStockException(beerId, available, quantity);
+                }
+                return pack(available - quantity, Math.subtractExact(pending(current), quantity));
+            }));
+        }
+
+        /**
+         * Забирает несброшенную дельту, available не меняется
+         */
+        long drain() {
+            return pending(state.getAndUpdate(current -> pack(available(current), 0)));
+        }
+
+        /**
+         * Возвращает дельту неудавшегося сброса
+         */
+        void restore(long delta) {
+            state.updateAndGet(current ->
+                    pack(available(current), Math.addExact(pending(current), Math.toIntExact(delta))));
+        }
+
+        void resync(Integer onHand) {
+            // несброшенные резервы уже вычтены из pending, но в базе остаток всё равно не уйдёт ниже нуля
+            int base = Math.max(onHand == null ? 0 : onHand, 0);
+            state.updateAndGet(current ->
+                    pack((int) Math.max(0, (long) base + pending(current)), pending(current)));
+        }
+
+        private static long pack(int available, int pending) {
+            return ((long) available << 32) | (pending & 0xFFFFFFFFL);
+        }
+
+        private static int available(long state) {
+            return (int) (state >> 32);
+        }
+
+        private static int pending(long state) {
+            return (int) state;
+        }
+    }
+}
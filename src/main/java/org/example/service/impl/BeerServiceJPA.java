@@ -1,21 +1,62 @@
 package org.example.service.impl;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.ConstraintViolationException;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.example.dto.BeerCountDTO;
+import org.example.dto.BeerCursorPage;
 import org.example.dto.BeerDTO;
+import org.example.dto.BeerFilter;
 import org.example.dto.BeerStyle;
+import org.example.dto.BeerStyleFacetDTO;
+import org.example.dto.CategoryDTO;
 import org.example.entity.Beer;
+import org.example.event.BeerChangedEvent;
+import org.example.event.BeersBulkChangedEvent;
+import org.example.exception.InvalidCursorException;
+import org.example.exception.InvalidFilterException;
+import org.example.exception.InvalidPatchException;
+import org.example.exception.PreconditionFailedException;
 import org.example.mapper.BeerMapper;
 import org.example.repository.BeerRepository;
+import org.example.repository.BeerSpecifications;
 import org.example.service.BeerService;
+import org.example.service.cache.BeerCache;
+import org.example.service.cache.BeerCountCache;
+import org.example.service.facet.BeerStyleFacets;
+import org.example.service.search.BeerNameIndex;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Primary;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Primary
@@ -24,32 +65,161 @@ public class BeerServiceJPA implements BeerService {
 
     private final BeerRepository beerRepository;
     private final BeerMapper beerMapper;
+    private final BeerNameIndex beerNameIndex;
+    private final BeerCache beerCache;
+    private final BeerCountCache beerCountCache;
+    private final BeerStyleFacets beerStyleFacets;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
 
     private final static int DEFAULT_PAGE = 0;
     private final static int DEFAULT_PAGE_SIZE = 25;
+    private final static int BULK_DELETE_CHUNK = 1000;
+    private final static BigDecimal HUNDRED = BigDecimal.valueOf(100);
+    private final static Set<String> SORT_KEYS =
+            Set.of("beerName", "beerStyle", "price", "quantityOnHand", "upc", "createdDate", "updateDate");
 
     @Override
     public Page<BeerDTO> listBeers(String beerName, BeerStyle beerStyle, Boolean showInventory, Integer pageName, Integer pageSize) {
-        PageRequest pageRequest = buildPageRequest(pageName, pageSize);
-        Page<Beer> beerPage;
+        BeerFilter filter = BeerFilter.builder()
+                .beerName(beerName)
+                .beerStyle(beerStyle == null ? null : List.of(beerStyle))
+                .build();
+        return listBeers(filter, false, showInventory, pageName, pageSize, null);
+    }
+
+    @Override
+    public Page<BeerDTO> listBeers(BeerFilter filter, boolean includeCategories, Boolean showInventory,
+                                   Integer pageNumber, Integer pageSize, List<String> sort) {
+        PageRequest pageRequest = buildPageRequest(pageNumber, pageSize, sort);
+        boolean withInventory = showInventory == null || showInventory;
+
+        Page<BeerDTO> page;
+        if (indexable(filter) && (sort == null || sort.isEmpty()) && beerNameIndex.isReady()) {
+            page = listBeerByNameFromIndex(filter.getBeerName(), singleStyle(filter), withInventory, pageRequest);
+        } else {
+            // проекции сразу в BeerDTO: без управляемых сущностей, dirty checking и лишней колонки остатков
+            page = beerRepository.findBeerDTOs(BeerSpecifications.matching(filter), withInventory, pageRequest);
+        }
+        if (includeCategories) {
+            attachCategories(page.getContent());
+        }
+        return page;
+    }
+
+    /**
+     * Индекс триграмм знает только имя и один стиль
+     */
+    private static boolean indexable(BeerFilter filter) {
+        boolean singleStyle = filter.getBeerStyle() == null || filter.getBeerStyle().size() <= 1;
+        BeerFilter rest = filter.toBuilder().beerName(null).beerStyle(null).build();
+        return StringUtils.hasText(filter.getBeerName()) && singleStyle && rest.equals(new BeerFilter());
+    }
+
+    private static BeerStyle singleStyle(BeerFilter filter) {
+        return filter.getBeerStyle() == null || filter.getBeerStyle().isEmpty() ? null : filter.getBeerStyle().get(0);
+    }
+
+    /**
+     * Категории всей страницы одним join-запросом вместо ленивой загрузки на каждое пиво
+     */
+    private void attachCategories(List<BeerDTO> beers) {
+        if (beers.isEmpty()) {
+            return;
+        }
+        Map<UUID, Set<CategoryDTO>> categories = new HashMap<>();
+        beers.forEach(beer -> categories.put(beer.getBeerId(), new LinkedHashSet<>()));
+        beerRepository.findCategoriesByBeerIds(categories.keySet()).forEach(view ->
+                categories.get(view.getBeerId()).add(new CategoryDTO(view.getCategoryId(), view.getDescription())));
+        beers.forEach(beer -> beer.setCategories(categories.get(beer.getBeerId())));
+    }
+
+    /**
+     * Страница без COUNT(*): Spring Data выбирает pageSize + 1 строк и по лишней определяет hasNext
+     */
+    @Override
+    public Slice<BeerDTO> listBeersSlice(BeerFilter filter, Boolean showInventory, Integer pageNumber, Integer pageSize) {
+        PageRequest pageRequest = buildPageRequest(pageNumber, pageSize);
+        boolean withInventory = showInventory == null || showInventory;
+
+        if (indexable(filter) && beerNameIndex.isReady()) {
+            Page<BeerDTO> page = listBeerByNameFromIndex(filter.getBeerName(), singleStyle(filter), withInventory,
+                    pageRequest);
+            return new SliceImpl<>(page.getContent(), pageRequest, page.hasNext());
+        }
+        return beerRepository.findBeerDTOSlice(BeerSpecifications.matching(filter), withInventory, pageRequest);
+    }
+
+    @Override
+    public BeerCountDTO countBeers(BeerFilter filter) {
+        return beerCountCache.get(filter);
+    }
+
+    @Override
+    public List<BeerStyleFacetDTO> styleFacets(boolean withPrices) {
+        return beerStyleFacets.styles(withPrices);
+    }
+
+    @Override
+    public BeerCursorPage listBeersByCursor(BeerFilter filter, Boolean showInventory, String cursor, Integer pageSize) {
+        int queryPageSize = buildPageRequest(null, pageSize).getPageSize();
+        BeerSpecifications.Condition condition = BeerSpecifications.condition(filter);
 
-        if (StringUtils.hasText(beerName) && beerStyle == null) {
-            beerPage = listBeerByName(beerName);
-        }else if (!StringUtils.hasText(beerName) && beerStyle != null) {
-            beerPage = listBeersByStyle(beerStyle);
-        }else if (StringUtils.hasText(beerName) && beerStyle != null) {
-            beerPage = listBeerByNameAndStyle(beerName,beerStyle);
+        // лишняя строка показывает, есть ли следующая страница, без запроса count
+        List<BeerDTO> beers;
+        if (StringUtils.hasText(cursor)) {
+            String[] key = decodeCursor(cursor);
+            beers = beerRepository.findKeysetPage(condition, key[0], UUID.fromString(key[1]), queryPageSize + 1);
+        } else {
+            beers = beerRepository.findKeysetPage(condition, null, null, queryPageSize + 1);
         }
-        else {
-            beerPage = beerRepository.findAll(pageRequest);
+
+        boolean hasNext = beers.size() > queryPageSize;
+        if (hasNext) {
+            beers = beers.subList(0, queryPageSize);
         }
-        if (showInventory !=null && !showInventory) {
-            beerPage.forEach(beer -> beer.setQuantityOnHand(null));
+        if (showInventory != null && !showInventory) {
+            beers.forEach(dto -> dto.setQuantityOnHand(null));
+        }
+
+        return BeerCursorPage.builder()
+                .content(beers)
+                .size(beers.size())
+                .hasNext(hasNext)
+                .nextCursor(hasNext ? encodeCursor(beers.get(beers.size() - 1)) : null)
+                .build();
+    }
+
+    /**
+     * Курсор - это ключ (beerName, beerId) последней строки страницы в Base64
+     */
+    private static String encodeCursor(BeerDTO last) {
+        String key = last.getBeerName() + "\n" + last.getBeerId();
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(key.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static String[] decodeCursor(String cursor) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = key.lastIndexOf('\n');
+            if (separator < 0) {
+                throw new InvalidCursorException(cursor);
+            }
+            String beerId = key.substring(separator + 1);
+            UUID.fromString(beerId);
+            return new String[]{key.substring(0, separator), beerId};
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException(cursor);
         }
-        return beerPage.map(beerMapper::beerToBeerDTO);
     }
 
     public PageRequest buildPageRequest(Integer pageNumber, Integer pageSize) {
+        return buildPageRequest(pageNumber, pageSize, null);
+    }
+
+    public PageRequest buildPageRequest(Integer pageNumber, Integer pageSize, List<String> sortKeys) {
         int queryPageNumber;
         int queryPageSize;
 
@@ -68,52 +238,212 @@ public class BeerServiceJPA implements BeerService {
                 queryPageSize = pageSize;
             }
         }
-        Sort sort = Sort.by(Sort.Order.asc("beerName"));
-        return PageRequest.of(queryPageNumber, queryPageSize,sort);
+        return PageRequest.of(queryPageNumber, queryPageSize, buildSort(sortKeys));
     }
 
-    private Page<Beer> listBeerByNameAndStyle(String beerName, BeerStyle beerStyle) {
-        return beerRepository.findAllByBeerNameIsLikeIgnoreCaseAndBeerStyle("%" + beerName + "%",beerStyle, null);
+    /**
+     * Ключи вида "price" или "-price" (по убыванию); beerId в конце делает порядок страниц стабильным
+     */
+    private static Sort buildSort(List<String> sortKeys) {
+        List<Sort.Order> orders = new ArrayList<>();
+        if (sortKeys == null || sortKeys.isEmpty()) {
+            orders.add(Sort.Order.asc("beerName"));
+        } else {
+            for (String key : sortKeys) {
+                boolean descending = key.startsWith("-");
+                String property = descending ? key.substring(1) : key;
+                if (!SORT_KEYS.contains(property)) {
+                    throw new InvalidFilterException("unknown sort key " + key);
+                }
+                orders.add(descending ? Sort.Order.desc(property) : Sort.Order.asc(property));
+            }
+        }
+        orders.add(Sort.Order.asc("beerId"));
+        return Sort.by(orders);
     }
 
-    public Page<Beer> listBeersByStyle(BeerStyle beerStyle) {
-        return beerRepository.findAllByBeerStyle(beerStyle, null);
-    }
+    /**
+     * Поиск подстроки по индексу триграмм: из базы читается только текущая страница по id
+     */
+    private Page<BeerDTO> listBeerByNameFromIndex(String beerName, BeerStyle beerStyle, boolean withInventory,
+                                                  PageRequest pageRequest) {
+        BeerNameIndex.Result matches = beerNameIndex.search(beerName, beerStyle,
+                pageRequest.getOffset(), pageRequest.getPageSize());
+        List<UUID> pageIds = matches.ids();
+        if (pageIds.isEmpty()) {
+            return new PageImpl<>(List.of(), pageRequest, matches.total());
+        }
 
-    public Page<Beer> listBeerByName(String name) {
-        return beerRepository.findAllByBeerNameIsLikeIgnoreCase("%" + name + "%", null);
+        List<BeerDTO> found = withInventory
+                ? beerRepository.findBeerDTOsByIds(pageIds)
+                : beerRepository.findBeerDTOsWithoutInventoryByIds(pageIds);
+        Map<UUID, BeerDTO> beers = found.stream()
+                .collect(Collectors.toMap(BeerDTO::getBeerId, Function.identity()));
+        List<BeerDTO> content = pageIds.stream()
+                .map(beers::get)
+                .filter(beer -> beer != null)
+                .toList();
+        return new PageImpl<>(content, pageRequest, matches.total());
     }
 
     @Override
     public Optional<BeerDTO> getBeerById(UUID id) {
-        return Optional.ofNullable(beerMapper.beerToBeerDTO(beerRepository.findById(id)
-                .orElse(null)));
+        return beerCache.get(id, beerId -> beerRepository.findById(beerId)
+                .map(beerMapper::beerToBeerDTO)
+                .orElse(null));
     }
 
+    /**
+     * Версия для условных запросов: сначала из кэша, иначе одна колонка из базы без маппинга сущности
+     */
     @Override
-    public BeerDTO saveNewBeer(BeerDTO beer) {
-        return beerMapper.beerToBeerDTO(beerRepository.save(beerMapper.beerDtoToBeer(beer)));
+    public Optional<Integer> getBeerVersion(UUID id) {
+        return beerCache.getIfPresent(id)
+                .map(BeerDTO::getVersion)
+                .or(() -> beerRepository.findVersionByBeerId(id));
     }
 
     @Override
-    public Optional<BeerDTO> updateBeerById(UUID beerId, BeerDTO beer) {
+    public BeerDTO saveNewBeer(BeerDTO beer) {
+        BeerDTO saved = beerMapper.beerToBeerDTO(beerRepository.save(beerMapper.beerDtoToBeer(beer)));
+        eventPublisher.publishEvent(BeerChangedEvent.created(saved));
+        return saved;
+    }
 
-        return Optional.of(beerMapper.beerToBeerDTO(
-                beerRepository.save(beerMapper.beerDtoToBeer(beer))
-        ));
+    @Override
+    public Optional<BeerDTO> updateBeerById(UUID beerId, BeerDTO beer, Integer expectedVersion) {
+        return beerRepository.findById(beerId).map(foundBeer -> {
+            checkVersion(foundBeer.getVersion(), expectedVersion);
+            BeerDTO before = beerMapper.beerToBeerDTO(foundBeer);
+            foundBeer.setBeerName(beer.getBeerName());
+            foundBeer.setBeerStyle(beer.getBeerStyle());
+            foundBeer.setUpc(beer.getUpc());
+            foundBeer.setPrice(beer.getPrice());
+            foundBeer.setQuantityOnHand(beer.getQuantityOnHand());
+            BeerDTO after;
+            try {
+                after = beerMapper.beerToBeerDTO(beerRepository.save(foundBeer));
+            } catch (OptimisticLockingFailureException e) {
+                // запись изменили между чтением и сохранением
+                if (expectedVersion != null) {
+                    throw new PreconditionFailedException();
+                }
+                throw e;
+            }
+            eventPublisher.publishEvent(BeerChangedEvent.updated(before, after));
+            return after;
+        });
     }
 
     @Override
     public Boolean deleteById(UUID beerId) {
-        if (beerRepository.existsById(beerId)) {
-            beerRepository.deleteById(beerId);
+        return beerRepository.findById(beerId).map(foundBeer -> {
+            beerRepository.delete(foundBeer);
+            eventPublisher.publishEvent(BeerChangedEvent.deleted(beerMapper.beerToBeerDTO(foundBeer)));
             return true;
+        }).orElse(false);
+    }
+
+    @Override
+    @Transactional
+    public int deleteByIds(Collection<UUID> beerIds) {
+        Set<UUID> distinct = new LinkedHashSet<>(beerIds);
+        List<UUID> ids = new ArrayList<>(distinct);
+        int deleted = 0;
+        // IN-список режется на части, чтобы не упереться в лимит параметров драйвера
+        for (int from = 0; from < ids.size(); from += BULK_DELETE_CHUNK) {
+            deleted += beerRepository.deleteByBeerIdIn(ids.subList(from, Math.min(from + BULK_DELETE_CHUNK, ids.size())));
+        }
+        if (deleted > 0) {
+            eventPublisher.publishEvent(BeersBulkChangedEvent.deleted(distinct));
         }
-        return false;
+        return deleted;
     }
 
     @Override
-    public void patchById(UUID beerId, BeerDTO beer) {
+    @Transactional
+    public int repriceBeers(BeerFilter filter, boolean all, BigDecimal percent) {
+        requireCriteria(filter, all);
+        BigDecimal factor = BigDecimal.ONE.add(percent.divide(HUNDRED, 6, RoundingMode.HALF_UP));
+        int updated = beerRepository.repriceBeers(BeerSpecifications.condition(filter), factor);
+        if (updated > 0) {
+            eventPublisher.publishEvent(BeersBulkChangedEvent.repriced());
+        }
+        return updated;
+    }
 
+    @Override
+    @Transactional
+    public int restockBeers(BeerFilter filter, boolean all, int quantity) {
+        requireCriteria(filter, all);
+        int updated = beerRepository.restockBeers(BeerSpecifications.condition(filter), quantity);
+        if (updated > 0) {
+            eventPublisher.publishEvent(BeersBulkChangedEvent.restocked());
+        }
+        return updated;
+    }
+
+    /**
+     * Пустой или опечатанный фильтр (неизвестные параметры просто не привязываются) не должен
+     * превращаться в UPDATE всего каталога
+     */
+    private static void requireCriteria(BeerFilter filter, boolean all) {
+        if (!all && BeerSpecifications.unrestricted(filter)) {
+            throw new InvalidFilterException("bulk update needs at least one criterion or all=true");
+        }
+    }
+
+    @Override
+    @Transactional
+    public Optional<BeerDTO> patchById(UUID beerId, JsonNode patch, Integer expectedVersion) {
+        if (patch == null || !patch.isObject()) {
+            throw new InvalidPatchException("body must be a JSON object");
+        }
+        return beerRepository.findById(beerId).map(foundBeer -> {
+            checkVersion(foundBeer.getVersion(), expectedVersion);
+            BeerDTO before = beerMapper.beerToBeerDTO(foundBeer);
+            BeerDTO patched = applyMergePatch(before, patch);
+            // сеттеры с тем же значением не делают сущность грязной, а @DynamicUpdate пишет только изменённые колонки
+            foundBeer.setBeerName(patched.getBeerName());
+            foundBeer.setBeerStyle(patched.getBeerStyle());
+            foundBeer.setUpc(patched.getUpc());
+            foundBeer.setPrice(patched.getPrice());
+            foundBeer.setQuantityOnHand(patched.getQuantityOnHand());
+
+            Set<ConstraintViolation<Beer>> violations = validator.validate(foundBeer);
+            if (!violations.isEmpty()) {
+                throw new ConstraintViolationException(violations);
+            }
+            BeerDTO after;
+            try {
+                after = beerMapper.beerToBeerDTO(beerRepository.saveAndFlush(foundBeer));
+            } catch (OptimisticLockingFailureException e) {
+                if (expectedVersion != null) {
+                    throw new PreconditionFailedException();
+                }
+                throw e;
+            }
+            if (!after.getVersion().equals(before.getVersion())) {
+                eventPublisher.publishEvent(BeerChangedEvent.updated(before, after));
+            }
+            return after;
+        });
+    }
+
+    /**
+     * JSON Merge Patch (RFC 7396) для плоского BeerDTO: отсутствующее поле не меняется, null очищает значение
+     */
+    private BeerDTO applyMergePatch(BeerDTO current, JsonNode patch) {
+        try {
+            return objectMapper.readerForUpdating(current.toBuilder().build()).readValue(patch);
+        } catch (IOException e) {
+            throw new InvalidPatchException(e.getMessage());
+        }
+    }
+
+    private static void checkVersion(Integer currentVersion, Integer expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(currentVersion)) {
+            throw new PreconditionFailedException();
+        }
     }
 }
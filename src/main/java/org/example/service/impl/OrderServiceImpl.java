@@ -0,0 +1,29 @@
+package org.example.service.impl;
+
+import lombok.RequiredArgsConstructor;
+import org.example.entity.TacoOrder;
+import org.example.repository.OrderRepository;
+import org.example.service.OrderService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+
+/**
+ * Синхронная запись заказа в потоке запроса; режим по умолчанию
+ */
+@Service
+@ConditionalOnProperty(name = "taco.orders.write-behind.enabled", havingValue = "false", matchIfMissing = true)
+@RequiredArgsConstructor
+public class OrderServiceImpl implements OrderService {
+
+    private final OrderRepository orderRepository;
+
+    @Override
+    public void placeOrder(TacoOrder order) {
+        if (order.getSubmissionId() == null) {
+            order.setSubmissionId(UUID.randomUUID());
+        }
+        orderRepository.save(order);
+    }
+}
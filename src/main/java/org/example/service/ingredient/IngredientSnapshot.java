@@ -0,0 +1,94 @@
+package org.example.service.ingredient;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.entity.Ingredient;
+import org.example.entity.Ingredient.Type;
+import org.example.event.IngredientsChangedEvent;
+import org.example.repository.IngredientRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Неизменяемый снимок справочника ингредиентов, разложенный по Type и по id. Строится один раз и целиком
+ * подменяется после изменения ингредиентов, поэтому форма тако и привязка выбранных ингредиентов
+ * не ходят в базу и не фильтруют список.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IngredientSnapshot {
+
+    private final IngredientRepository ingredientRepository;
+
+    private final AtomicReference<State> state = new AtomicReference<>();
+    // перестройки идут по очереди, иначе медленное старое чтение могло бы подменить более новое
+    private final Lock rebuildLock = new ReentrantLock();
+
+    public List<Ingredient> byType(Type type) {
+        return current().byType().get(type);
+    }
+
+    public Map<Type, List<Ingredient>> byType() {
+        return current().byType();
+    }
+
+    public Optional<Ingredient> byId(String id) {
+        return Optional.ofNullable(current().byId().get(id));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        rebuildLock.lock();
+        try {
+            Map<Type, List<Ingredient>> grouped = new EnumMap<>(Type.class);
+            for (Type type : Type.values()) {
+                grouped.put(type, new ArrayList<>());
+            }
+            Map<String, Ingredient> byId = new HashMap<>();
+            List<Ingredient> ingredients = ingredientRepository.findAll();
+            ingredients.forEach(ingredient -> {
+                grouped.get(ingredient.getType()).add(ingredient);
+                byId.put(ingredient.getId(), ingredient);
+            });
+            grouped.replaceAll((type, list) -> List.copyOf(list));
+            state.set(new State(Collections.unmodifiableMap(grouped), Map.copyOf(byId)));
+            log.info("Ingredient snapshot built: {} ingredients", ingredients.size());
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onIngredientsChanged(IngredientsChangedEvent event) {
+        rebuild();
+    }
+
+    private State current() {
+        State snapshot = state.get();
+        if (snapshot == null) {
+            rebuild();
+            snapshot = state.get();
+        }
+        return snapshot;
+    }
+
+    /**
+     * Оба представления подменяются одной ссылкой, чтобы форма и привязка видели один и тот же справочник
+     */
+    private record State(Map<Type, List<Ingredient>> byType, Map<String, Ingredient> byId) {
+    }
+}
@@ -0,0 +1,310 @@
+package org.example.service.order;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+import java.util.zip.CRC32;
+
+/**
+ * Локальный журнал только на дозапись: запись [длина][CRC32][данные]. Записи сбрасываются на диск группами:
+ * один поток делает fsync сразу для всех записей, дописанных с прошлого сброса, и отпускает всех их авторов.
+ * Отдельный файл checkpoint хранит смещение, до которого всё уже записано в базу; когда хвост журнала
+ * пуст, файл обрезается до нуля. Оборванная при сбое последняя запись при открытии отбрасывается.
+ */
+@Slf4j
+public class OrderJournal implements Closeable {
+
+    private static final int HEADER = Integer.BYTES * 2;
+
+    private final Path journalFile;
+    private final Path checkpointFile;
+    private final FileChannel channel;
+    private final Lock lock = new ReentrantLock();
+    private final Condition written = lock.newCondition();
+    /**
+     * Записи в page cache, ждущие fsync, в порядке смещений
+     */
+    private final List<Waiter> unsynced = new ArrayList<>();
+    private final AtomicLong syncs = new AtomicLong();
+    private final Thread syncer;
+    private boolean closed;
+
+    public record Record(long endOffset, byte[] payload) {
+    }
+
+    private record Waiter(long start, long end, LongConsumer appended, CompletableFuture<Long> synced) {
+    }
+
+    public OrderJournal(Path directory) {
+        try {
+            Files.createDirectories(directory);
+            journalFile = directory.resolve("orders.journal");
+            checkpointFile = directory.resolve("orders.checkpoint");
+            if (Files.notExists(journalFile)) {
+                Files.createFile(journalFile);
+                // в журнале номера карт, поэтому читать его может только владелец
+                if (FileSystems.getDefault().supportedFileAttributeViews().contains("posix")) {
+                    Files.setPosixFilePermissions(journalFile, PosixFilePermissions.fromString("rw-------"));
+                }
+            }
+            channel = FileChannel.open(journalFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open order journal in " + directory, e);
+        }
+        syncer = new Thread(this::syncLoop, "order-journal-sync");
+        syncer.setDaemon(true);
+        syncer.start();
+    }
+
+    /**
+     * Записи после checkpoint в порядке добавления; битый хвост обрезается
+     */
+    public List<Record> replay() {
+        lock.lock();
+        try {
+            long size = channel.size();
+            long position = Math.min(readCheckpoint(), size);
+            List<Record> records = new ArrayList<>();
+            ByteBuffer header = ByteBuffer.allocate(HEADER);
+            while (position + HEADER <= size) {
+                header.clear();
+                channel.read(header, position);
+                header.flip();
+                int length = header.getInt();
+                int crc = header.getInt();
+                if (length < 0 || position + HEADER + length > size) {
+                    break;
+                }
+                ByteBuffer payload = ByteBuffer.allocate(length);
+                channel.read(payload, position + HEADER);
+                if (crc != crc(payload.array())) {
+                    break;
+                }
+                position += HEADER + length;
+                records.add(new Record(position, payload.array()));
+            }
+            if (position < size) {
+                log.warn("Order journal has a torn record at offset {}, dropping {} bytes", position, size - position);
+                channel.truncate(position);
+                channel.force(true);
+            }
+            return records;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot replay order journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Дописывает запись и дожидается fsync
+     *
+     * @return смещение конца записи, его потом передают в {@link #checkpoint(long)}
+     */
+    public long append(byte[] payload) {
+        return append(payload, offset -> {
+        });
+    }
+
+    /**
+     * То же, но после fsync передаёт смещение конца записи в appended. Вызовы appended идут из потока сброса
+     * строго в порядке записей, и checkpoint по последнему смещению не перескочит чужую запись.
+     * Под блокировкой журнала запись только попадает в page cache; fsync один на всех, кто успел дописать
+     * за время предыдущего, поэтому пропускная способность не упирается в 1 / задержку fsync.
+     */
+    public long append(byte[] payload, LongConsumer appended) {
+        ByteBuffer buffer = ByteBuffer.allocate(HEADER + payload.length);
+        buffer.putInt(payload.length).putInt(crc(payload)).put(payload).flip();
+        Waiter waiter;
+        lock.lock();
+        try {
+            if (closed) {
+                throw new IllegalStateException("Order journal is closed");
+            }
+            long start = channel.size();
+            long position = start;
+            try {
+                while (buffer.hasRemaining()) {
+                    position += channel.write(buffer, position);
+                }
+            } catch (IOException e) {
+                // заказ не подтверждён, поэтому и в журнале от него не должно остаться ни байта
+                rollback(start, e);
+                throw new UncheckedIOException("Cannot append to order journal", e);
+            }
+            waiter = new Waiter(start, position, appended, new CompletableFuture<>());
+            unsynced.add(waiter);
+            written.signal();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot append to order journal", e);
+        } finally {
+            lock.unlock();
+        }
+        try {
+            return waiter.synced().join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+    }
+
+    /**
+     * Сколько раз журнал сбрасывался на диск
+     */
+    public long syncs() {
+        return syncs.get();
+    }
+
+    private void syncLoop() {
+        while (true) {
+            List<Waiter> group;
+            lock.lock();
+            try {
+                while (unsynced.isEmpty() && !closed) {
+                    written.awaitUninterruptibly();
+                }
+                if (unsynced.isEmpty()) {
+                    return;
+                }
+                group = new ArrayList<>(unsynced);
+                unsynced.clear();
+            } finally {
+                lock.unlock();
+            }
+            // fsync вне блокировки: пока он идёт, следующие заказы дописываются и соберутся в следующую группу
+            try {
+                channel.force(false);
+                syncs.incrementAndGet();
+            } catch (IOException e) {
+                failFrom(group, new UncheckedIOException("Cannot sync order journal", e));
+                continue;
+            }
+            for (Waiter waiter : group) {
+                try {
+                    waiter.appended().accept(waiter.end());
+                    waiter.synced().complete(waiter.end());
+                } catch (RuntimeException e) {
+                    waiter.synced().completeExceptionally(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Неудавшийся fsync: файл обрезается до начала группы, и вместе с группой отклоняются записи, дописанные
+     * после неё - после обрезки их в файле уже нет
+     */
+    private void failFrom(List<Waiter> group, RuntimeException failure) {
+        lock.lock();
+        try {
+            rollback(group.get(0).start(), failure);
+            group.addAll(unsynced);
+            unsynced.clear();
+        } finally {
+            lock.unlock();
+        }
+        group.forEach(waiter -> waiter.synced().completeExceptionally(failure));
+    }
+
+    private void rollback(long position, Exception cause) {
+        try {
+            channel.truncate(position);
+            channel.force(true);
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Всё до offset записано в базу. Если после offset ничего нет, журнал обрезается до нуля.
+     */
+    public void checkpoint(long offset) {
+        lock.lock();
+        try {
+            if (offset >= channel.size()) {
+                // обрезка до записи checkpoint: после сбоя между ними checkpoint больше файла и читается как 0
+                channel.truncate(0);
+                channel.force(true);
+                writeCheckpoint(0);
+            } else {
+                writeCheckpoint(offset);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot checkpoint order journal", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long size() {
+        try {
+            return channel.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            closed = true;
+            written.signal();
+        } finally {
+            lock.unlock();
+        }
+        // ожидающие записи ещё успевают сброситься
+        try {
+            syncer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private long readCheckpoint() throws IOException {
+        if (Files.notExists(checkpointFile)) {
+            return 0;
+        }
+        byte[] bytes = Files.readAllBytes(checkpointFile);
+        return bytes.length == Long.BYTES ? ByteBuffer.wrap(bytes).getLong() : 0;
+    }
+
+    private void writeCheckpoint(long offset) throws IOException {
+        Path temp = checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp");
+        try (FileChannel out = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            out.write(ByteBuffer.allocate(Long.BYTES).putLong(offset).flip());
+            out.force(true);
+        }
+        Files.move(temp, checkpointFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    private static int crc(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,62 @@
+package org.example.service.order;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import org.example.entity.Ingredient;
+import org.example.entity.Taco;
+import org.example.entity.TacoOrder;
+
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Заказ в журнале: только значения полей и id ингредиентов, без сущностей JPA. CVV на диск не пишется:
+ * восстановленный из журнала заказ сохраняется без него
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record OrderJournalEntry(UUID submissionId,
+                                String deliveryName,
+                                String deliveryStreet,
+                                String deliveryCity,
+                                String deliveryState,
+                                String deliveryZip,
+                                String ccNumber,
+                                String ccExpiration,
+                                Date placeAt,
+                                List<TacoEntry> tacos) {
+
+    public record TacoEntry(String name, Date createdAt, List<String> ingredientIds) {
+    }
+
+    public static OrderJournalEntry of(TacoOrder order) {
+        return new OrderJournalEntry(order.getSubmissionId(), order.getDeliveryName(), order.getDeliveryStreet(),
+                order.getDeliveryCity(), order.getDeliveryState(), order.getDeliveryZip(), order.getCcNumber(),
+                order.getCcExpiration(), order.getPlaceAt(),
+                order.getTacos().stream()
+                        .map(taco -> new TacoEntry(taco.getName(), taco.getCreatedAt(),
+                                taco.getIngredients().stream().map(Ingredient::getId).toList()))
+                        .toList());
+    }
+
+    public TacoOrder toOrder(Function<String, Ingredient> ingredientById) {
+        TacoOrder order = new TacoOrder();
+        order.setSubmissionId(submissionId);
+        order.setDeliveryName(deliveryName);
+        order.setDeliveryStreet(deliveryStreet);
+        order.setDeliveryCity(deliveryCity);
+        order.setDeliveryState(deliveryState);
+        order.setDeliveryZip(deliveryZip);
+        order.setCcNumber(ccNumber);
+        order.setCcExpiration(ccExpiration);
+        order.setPlaceAt(placeAt);
+        for (TacoEntry entry : tacos) {
+            Taco taco = new Taco();
+            taco.setName(entry.name());
+            taco.setCreatedAt(entry.createdAt());
+            entry.ingredientIds().forEach(id -> taco.addIngredient(ingredientById.apply(id)));
+            order.addTaco(taco);
+        }
+        return order;
+    }
+}
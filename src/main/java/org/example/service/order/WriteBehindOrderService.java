@@ -0,0 +1,236 @@
+package org.example.service.order;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolationException;
+import lombok.extern.slf4j.Slf4j;
+import org.example.entity.TacoOrder;
+import org.example.repository.IngredientRepository;
+import org.example.repository.OrderRepository;
+import org.example.service.OrderService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Заказ подтверждается, как только он записан в локальный журнал с fsync; в базу его пачками переносит
+ * фоновый поток. При старте непрочитанный хвост журнала проигрывается заново, а уже записанные заказы
+ * отсекаются по submission_id (уникальный индекс), так что каждый заказ попадает в базу ровно один раз.
+ * Включается свойством taco.orders.write-behind.enabled=true.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "taco.orders.write-behind.enabled", havingValue = "true")
+public class WriteBehindOrderService implements OrderService {
+
+    private final OrderRepository orderRepository;
+    private final IngredientRepository ingredientRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final OrderJournal journal;
+    private final Path rejectedFile;
+    private final int batchSize;
+    private final Duration maxDelay;
+    private final Duration retryDelay;
+
+    private final BlockingQueue<Pending> queue = new LinkedBlockingQueue<>();
+    private volatile boolean running;
+    private Thread writer;
+
+    private record Pending(OrderJournalEntry entry, long endOffset) {
+    }
+
+    public WriteBehindOrderService(OrderRepository orderRepository,
+                                   IngredientRepository ingredientRepository,
+                                   PlatformTransactionManager transactionManager,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${taco.orders.write-behind.journal-dir:./data/order-journal}") Path journalDir,
+                                   @Value("${taco.orders.write-behind.batch-size:100}") int batchSize,
+                                   @Value("${taco.orders.write-behind.max-delay:PT0.2S}") Duration maxDelay,
+                                   @Value("${taco.orders.write-behind.retry-delay:PT5S}") Duration retryDelay) {
+        this.orderRepository = orderRepository;
+        this.ingredientRepository = ingredientRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.objectMapper = objectMapper;
+        this.journal = new OrderJournal(journalDir);
+        this.rejectedFile = journalDir.resolve("orders.rejected");
+        this.batchSize = batchSize;
+        this.maxDelay = maxDelay;
+        this.retryDelay = retryDelay;
+        Gauge.builder("taco.orders.journal.pending", queue, BlockingQueue::size)
+                .description("Orders acknowledged but not yet written to the database")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        for (OrderJournal.Record record : journal.replay()) {
+            try {
+                queue.add(new Pending(objectMapper.readValue(record.payload(), OrderJournalEntry.class),
+                        record.endOffset()));
+            } catch (IOException e) {
+                // CRC сошёлся, но JSON не читается - запись не повторить, откладываем её в сторону
+                reject(new String(record.payload(), StandardCharsets.UTF_8), e);
+            }
+        }
+        if (!queue.isEmpty()) {
+            log.info("Replaying {} journaled orders", queue.size());
+        }
+        running = true;
+        writer = new Thread(this::drainLoop, "order-journal-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        // незаписанное остаётся в журнале и будет проиграно при следующем старте
+        running = false;
+        writer.join(maxDelay.plus(Duration.ofSeconds(10)).toMillis());
+        journal.close();
+    }
+
+    @Override
+    public void placeOrder(TacoOrder order) {
+        if (order.getSubmissionId() == null) {
+            order.setSubmissionId(UUID.randomUUID());
+        }
+        OrderJournalEntry entry = OrderJournalEntry.of(order);
+        byte[] payload;
+        try {
+            payload = objectMapper.writeValueAsBytes(entry);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // в очередь заказ кладёт поток сброса журнала после общего fsync, в порядке записей в журнале;
+        // вызывающий поток ждёт этого на CompletableFuture и не закрепляется за несущим
+        journal.append(payload, endOffset -> queue.add(new Pending(entry, endOffset)));
+    }
+
+    public int pending() {
+        return queue.size();
+    }
+
+    private void drainLoop() {
+        List<Pending> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                if (batch.isEmpty()) {
+                    Pending first = queue.poll(maxDelay.toMillis(), TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                }
+                queue.drainTo(batch, batchSize - batch.size());
+                int written = write(batch);
+                batch.subList(0, written).clear();
+                if (!batch.isEmpty()) {
+                    Thread.sleep(retryDelay.toMillis());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Order journal writer failed", e);
+                // без паузы упавший цикл крутился бы вхолостую и забивал лог
+                try {
+                    Thread.sleep(retryDelay.toMillis());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Пачка пишется одной транзакцией; если она откатилась, заказы пишутся по одному, чтобы найти виноватый
+     *
+     * @return сколько заказов с начала пачки обработано (записано или отложено)
+     */
+    private int write(List<Pending> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> persist(batch));
+            journal.checkpoint(batch.get(batch.size() - 1).endOffset());
+            return batch.size();
+        } catch (RuntimeException batchFailure) {
+            log.warn("Batch of {} journaled orders failed, retrying one by one", batch.size(), batchFailure);
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            Pending pending = batch.get(i);
+            try {
+                transactionTemplate.executeWithoutResult(status -> persist(List.of(pending)));
+            } catch (RuntimeException e) {
+                if (!isInvalid(e)) {
+                    // база недоступна или другая временная ошибка: остаток пачки повторим позже
+                    log.warn("Journaled order {} not written, will retry", pending.entry().submissionId(), e);
+                    if (i > 0) {
+                        journal.checkpoint(batch.get(i - 1).endOffset());
+                    }
+                    return i;
+                }
+                reject(pending.entry(), e);
+            }
+            journal.checkpoint(pending.endOffset());
+        }
+        return batch.size();
+    }
+
+    /**
+     * Заказ, который не пройдёт и при повторе. Ошибка Bean Validation при flush на коммите приходит
+     * завёрнутой в TransactionSystemException, поэтому смотрим всю цепочку причин
+     */
+    private static boolean isInvalid(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof DataIntegrityViolationException || cause instanceof ConstraintViolationException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void persist(List<Pending> batch) {
+        Set<UUID> submissionIds = new HashSet<>();
+        batch.forEach(pending -> submissionIds.add(pending.entry().submissionId()));
+        Set<UUID> existing = new HashSet<>(orderRepository.findExistingSubmissionIds(submissionIds));
+        for (Pending pending : batch) {
+            if (existing.add(pending.entry().submissionId())) {
+                orderRepository.save(pending.entry().toOrder(ingredientRepository::getReferenceById));
+            }
+        }
+    }
+
+    private void reject(Object entry, Exception cause) {
+        log.error("Journaled order rejected, moved to {}: {}", rejectedFile, cause.getMessage());
+        try {
+            String line = (entry instanceof String raw ? raw : objectMapper.writeValueAsString(entry)) + "\n";
+            Files.writeString(rejectedFile, line, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
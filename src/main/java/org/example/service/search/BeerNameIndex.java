@@ -0,0 +1,314 @@
+package org.example.service.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.dto.BeerDTO;
+import org.example.dto.BeerStyle;
+import org.example.event.BeerChangedEvent;
+import org.example.event.BeersBulkChangedEvent;
+import org.example.repository.BeerNameView;
+import org.example.repository.BeerRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Инвертированный индекс триграмм по beerName для поиска подстроки без LIKE '%...%' в базе.
+ * Документы только добавляются в конец, удалённые помечаются и вычищаются при компактировании.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BeerNameIndex {
+
+    private static final int GRAM = 3;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    private final BeerRepository beerRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, IntList> postings = new HashMap<>();
+    private final Map<UUID, Integer> slotById = new HashMap<>();
+    private UUID[] ids = new UUID[INITIAL_CAPACITY];
+    private String[] names = new String[INITIAL_CAPACITY];
+    private String[] keys = new String[INITIAL_CAPACITY];
+    private BeerStyle[] styles = new BeerStyle[INITIAL_CAPACITY];
+    private int slots;
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        try (Stream<BeerNameView> views = beerRepository.streamAllNames()) {
+            lock.writeLock().lock();
+            try {
+                clear();
+                views.forEach(view -> append(view.getBeerId(), view.getBeerName(), view.getBeerStyle()));
+                ready = true;
+                log.info("Beer name index built: {} beers, {} trigrams", slotById.size(), postings.size());
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return slotById.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Страница идентификаторов пива, чьё имя содержит name (без учёта регистра), в порядке (beerName, beerId),
+     * совпадающем с порядком базы: страницы из индекса и из запроса к базе не расходятся.
+     * Полностью сортируются только offset + limit лучших совпадений.
+     */
+    public Result search(String name, BeerStyle beerStyle, long offset, int limit) {
+        String query = normalize(name);
+        lock.readLock().lock();
+        try {
+            Comparator<Integer> order = Comparator.<Integer, String>comparing(slot -> names[slot], BeerNameIndex::compareNames)
+                    .thenComparing(slot -> ids[slot], BeerNameIndex::compareIds);
+            int keep = (int) Math.min(Integer.MAX_VALUE - 1, offset + limit);
+            PriorityQueue<Integer> top = new PriorityQueue<>(Math.max(1, Math.min(keep, 1024)), order.reversed());
+            int total = 0;
+
+            IntList candidates = query.length() < GRAM ? null : candidates(query);
+            int count = query.length() < GRAM ? slots : (candidates == null ? 0 : candidates.size);
+            for (int i = 0; i < count; i++) {
+                int slot = candidates == null ? i : candidates.data[i];
+                if (!matches(slot, query, beerStyle)) {
+                    continue;
+                }
+                total++;
+                if (top.size() < keep) {
+                    top.add(slot);
+                } else if (keep > 0 && order.compare(slot, top.peek()) < 0) {
+                    top.poll();
+                    top.add(slot);
+                }
+            }
+
+            UUID[] sorted = new UUID[top.size()];
+            for (int i = sorted.length - 1; i >= 0; i--) {
+                sorted[i] = ids[top.poll()];
+            }
+            int from = (int) Math.min(offset, sorted.length);
+            return new Result(List.of(Arrays.copyOfRange(sorted, from, sorted.length)), total);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeerChanged(BeerChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            if (event.before() != null) {
+                remove(event.before().getBeerId());
+            }
+            BeerDTO after = event.after();
+            if (after != null) {
+                remove(after.getBeerId());
+                append(after.getBeerId(), after.getBeerName(), after.getBeerStyle());
+            }
+            if (slots > INITIAL_CAPACITY && slotById.size() < slots / 2) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Цена и остаток в индекс не входят, поэтому важно только удаление
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBeersBulkChanged(BeersBulkChangedEvent event) {
+        if (event.operation() != BeersBulkChangedEvent.Operation.DELETED) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            event.beerIds().forEach(this::remove);
+            if (slots > INITIAL_CAPACITY && slotById.size() < slots / 2) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean matches(int slot, String query, BeerStyle beerStyle) {
+        return ids[slot] != null
+                && (beerStyle == null || beerStyle == styles[slot])
+                && keys[slot].contains(query);
+    }
+
+    private IntList candidates(String query) {
+        IntList[] lists = new IntList[query.length() - GRAM + 1];
+        for (int i = 0; i < lists.length; i++) {
+            lists[i] = postings.get(gram(query, i));
+            if (lists[i] == null) {
+                return null;
+            }
+        }
+        Arrays.sort(lists, Comparator.comparingInt(list -> list.size));
+        IntList result = lists[0];
+        for (int i = 1; i < lists.length && result.size > 0; i++) {
+            result = result.intersect(lists[i]);
+        }
+        return result;
+    }
+
+    private void append(UUID beerId, String beerName, BeerStyle beerStyle) {
+        if (beerId == null || beerName == null) {
+            return;
+        }
+        if (slots == ids.length) {
+            int capacity = ids.length * 2;
+            ids = Arrays.copyOf(ids, capacity);
+            names = Arrays.copyOf(names, capacity);
+            keys = Arrays.copyOf(keys, capacity);
+            styles = Arrays.copyOf(styles, capacity);
+        }
+        int slot = slots++;
+        String key = normalize(beerName);
+        ids[slot] = beerId;
+        names[slot] = beerName;
+        keys[slot] = key;
+        styles[slot] = beerStyle;
+        slotById.put(beerId, slot);
+        for (int i = 0; i + GRAM <= key.length(); i++) {
+            IntList list = postings.computeIfAbsent(gram(key, i), k -> new IntList());
+            // одна и та же триграмма может встретиться в имени дважды
+            if (list.size == 0 || list.data[list.size - 1] != slot) {
+                list.add(slot);
+            }
+        }
+    }
+
+    private void remove(UUID beerId) {
+        Integer slot = beerId == null ? null : slotById.remove(beerId);
+        if (slot != null) {
+            ids[slot] = null;
+            names[slot] = null;
+            keys[slot] = null;
+            styles[slot] = null;
+        }
+    }
+
+    private void compact() {
+        UUID[] liveIds = Arrays.copyOf(ids, slots);
+        String[] liveNames = Arrays.copyOf(names, slots);
+        BeerStyle[] liveStyles = Arrays.copyOf(styles, slots);
+        int liveSlots = slots;
+        clear();
+        for (int slot = 0; slot < liveSlots; slot++) {
+            if (liveIds[slot] != null) {
+                append(liveIds[slot], liveNames[slot], liveStyles[slot]);
+            }
+        }
+    }
+
+    private void clear() {
+        postings.clear();
+        slotById.clear();
+        ids = new UUID[INITIAL_CAPACITY];
+        names = new String[INITIAL_CAPACITY];
+        keys = new String[INITIAL_CAPACITY];
+        styles = new BeerStyle[INITIAL_CAPACITY];
+        slots = 0;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * База сортирует по binary_collate(beer_name), на PostgreSQL это collate "C": байты UTF-8 идут в порядке
+     * кодовых точек, а не UTF-16 как у String.compareTo
+     */
+    static int compareNames(String left, String right) {
+        int i = 0;
+        int j = 0;
+        while (i < left.length() && j < right.length()) {
+            int a = left.codePointAt(i);
+            int b = right.codePointAt(j);
+            if (a != b) {
+                return Integer.compare(a, b);
+            }
+            i += Character.charCount(a);
+            j += Character.charCount(b);
+        }
+        return Integer.compare(left.length() - i, right.length() - j);
+    }
+
+    /**
+     * uuid в базе сравнивается побайтно без знака, UUID.compareTo - как два long со знаком
+     */
+    static int compareIds(UUID left, UUID right) {
+        int high = Long.compareUnsigned(left.getMostSignificantBits(), right.getMostSignificantBits());
+        return high != 0 ? high : Long.compareUnsigned(left.getLeastSignificantBits(), right.getLeastSignificantBits());
+    }
+
+    private static long gram(String key, int offset) {
+        return ((long) key.charAt(offset) << 32)
+                | ((long) key.charAt(offset + 1) << 16)
+                | key.charAt(offset + 2);
+    }
+
+    private static final class IntList {
+        private int[] data = new int[4];
+        private int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        IntList intersect(IntList other) {
+            IntList result = new IntList();
+            int i = 0;
+            int j = 0;
+            while (i < size && j < other.size) {
+                if (data[i] < other.data[j]) {
+                    i++;
+                } else if (data[i] > other.data[j]) {
+                    j++;
+                } else {
+                    result.add(data[i]);
+                    i++;
+                    j++;
+                }
+            }
+            return result;
+        }
+    }
+
+    public record Result(List<UUID> ids, int total) {
+    }
+}
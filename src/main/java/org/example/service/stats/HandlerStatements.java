@@ -0,0 +1,14 @@
+package org.example.service.stats;
+
+/**
+ * Накопленные счётчики SQL по методу контроллера
+ */
+public record HandlerStatements(String handler,
+                                long requests,
+                                long statements,
+                                long maxStatements,
+                                double avgStatements,
+                                long entityLoads,
+                                long collectionFetches,
+                                double jdbcMillis) {
+}
@@ -0,0 +1,17 @@
+package org.example.service.stats;
+
+/**
+ * Счётчики одного HTTP-запроса; живут в ThreadLocal потока запроса, поэтому без синхронизации
+ */
+final class RequestStatements {
+
+    final String handler;
+    long statements;
+    long jdbcNanos;
+    long entityLoads;
+    long collectionFetches;
+
+    RequestStatements(String handler) {
+        this.handler = handler;
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.service.stats;
+
+import org.hibernate.SessionEventListener;
+
+/**
+ * Считает выполненные JDBC-выражения и время их выполнения для текущего запроса.
+ * Hibernate создаёт экземпляр на каждую сессию (hibernate.session.events.auto), сессия однопоточна.
+ */
+public class StatementCountingListener implements SessionEventListener {
+
+    private long started;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        started = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        StatementStatistics.recordStatement(System.nanoTime() - started);
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        started = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        StatementStatistics.recordStatement(System.nanoTime() - started);
+    }
+}
@@ -0,0 +1,114 @@
+package org.example.service.stats;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Число SQL, загрузок сущностей и подгрузок коллекций за запрос с привязкой к методу контроллера.
+ * В отличие от show_sql и глобальной Statistics даёт цифры на каждый эндпоинт и видит N+1:
+ * рост числа выражений вместе с размером страницы или ленивые подгрузки коллекций.
+ */
+@Component
+public class StatementStatistics {
+
+    private static final ThreadLocal<RequestStatements> CURRENT = new ThreadLocal<>();
+
+    private final Map<String, HandlerTotals> totals = new ConcurrentHashMap<>();
+
+    public StatementStatistics(EntityManagerFactory entityManagerFactory) {
+        EventListenerRegistry listeners = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        listeners.appendListeners(EventType.POST_LOAD, event -> {
+            RequestStatements request = CURRENT.get();
+            if (request != null) {
+                request.entityLoads++;
+            }
+        });
+        listeners.appendListeners(EventType.INIT_COLLECTION, event -> {
+            RequestStatements request = CURRENT.get();
+            if (request != null) {
+                request.collectionFetches++;
+            }
+        });
+    }
+
+    static void recordStatement(long nanos) {
+        RequestStatements request = CURRENT.get();
+        if (request != null) {
+            request.statements++;
+            request.jdbcNanos += nanos;
+        }
+    }
+
+    public void begin(String handler) {
+        CURRENT.set(new RequestStatements(handler));
+    }
+
+    public void end() {
+        RequestStatements request = CURRENT.get();
+        if (request == null) {
+            return;
+        }
+        CURRENT.remove();
+        totals.computeIfAbsent(request.handler, handler -> new HandlerTotals()).add(request);
+    }
+
+    public Optional<HandlerStatements> get(String handler) {
+        return Optional.ofNullable(totals.get(handler)).map(handlerTotals -> handlerTotals.snapshot(handler));
+    }
+
+    /**
+     * Худшие методы: сначала по максимуму выражений за один запрос, затем по среднему
+     */
+    public List<HandlerStatements> worst(int limit) {
+        return totals.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey()))
+                .sorted(Comparator.comparingLong(HandlerStatements::maxStatements)
+                        .thenComparingDouble(HandlerStatements::avgStatements)
+                        .reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        totals.clear();
+    }
+
+    private static final class HandlerTotals {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+        private final AtomicLong maxStatements = new AtomicLong();
+        private final LongAdder entityLoads = new LongAdder();
+        private final LongAdder collectionFetches = new LongAdder();
+        private final LongAdder jdbcNanos = new LongAdder();
+
+        void add(RequestStatements request) {
+            requests.increment();
+            statements.add(request.statements);
+            maxStatements.accumulateAndGet(request.statements, Math::max);
+            entityLoads.add(request.entityLoads);
+            collectionFetches.add(request.collectionFetches);
+            jdbcNanos.add(request.jdbcNanos);
+        }
+
+        HandlerStatements snapshot(String handler) {
+            long count = requests.sum();
+            long total = statements.sum();
+            return new HandlerStatements(handler, count, total, maxStatements.get(),
+                    count == 0 ? 0 : (double) total / count, entityLoads.sum(), collectionFetches.sum(),
+                    jdbcNanos.sum() / 1e6);
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package org.example.service.stats;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * GET /actuator/statements?limit=10 - методы контроллеров с наибольшим числом SQL за запрос,
+ * DELETE - сброс накопленных значений
+ */
+@Component
+@Endpoint(id = "statements")
+@RequiredArgsConstructor
+public class StatementStatisticsEndpoint {
+
+    private static final int DEFAULT_LIMIT = 20;
+
+    private final StatementStatistics statementStatistics;
+
+    @ReadOperation
+    public List<HandlerStatements> worst(@Nullable Integer limit) {
+        return statementStatistics.worst(limit == null ? DEFAULT_LIMIT : limit);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        statementStatistics.reset();
+    }
+}
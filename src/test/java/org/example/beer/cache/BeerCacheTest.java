@@ -0,0 +1,168 @@
+package org.example.beer.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.dto.BeerDTO;
+import org.example.event.BeerChangedEvent;
+import org.example.service.cache.BeerCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BeerCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private BeerCache beerCache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        beerCache = new BeerCache(2, meterRegistry);
+    }
+
+    @DisplayName("Second read is served from the cache and counted as a hit")
+    @Test
+    void readThrough() {
+        UUID beerId = UUID.randomUUID();
+        AtomicInteger loads = new AtomicInteger();
+
+        beerCache.get(beerId, id -> {
+            loads.incrementAndGet();
+            return beer(id, 1, "Galaxy");
+        });
+        BeerDTO cached = beerCache.get(beerId, id -> {
+            loads.incrementAndGet();
+            return beer(id, 1, "Galaxy");
+        }).orElseThrow();
+
+        assertThat(loads).hasValue(1);
+        assertThat(cached.getBeerName()).isEqualTo("Galaxy");
+        assertThat(meterRegistry.get("cache.gets").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("cache.gets").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+    }
+
+    @DisplayName("Created beers are not cached, updated ones replace the cached copy")
+    @Test
+    void createdBeersNotCached() {
+        UUID beerId = UUID.randomUUID();
+
+        beerCache.onBeerChanged(BeerChangedEvent.created(beer(beerId, 0, "Galaxy")));
+        assertThat(beerCache.getIfPresent(beerId)).isEmpty();
+
+        beerCache.onBeerChanged(BeerChangedEvent.updated(beer(beerId, 0, "Galaxy"), beer(beerId, 1, "Galaxy IPA")));
+        assertThat(beerCache.getIfPresent(beerId)).map(BeerDTO::getBeerName).contains("Galaxy IPA");
+    }
+
+    @DisplayName("A beer deleted while it is being loaded is not put back into the cache")
+    @Test
+    void deleteDuringLoad() {
+        UUID beerId = UUID.randomUUID();
+
+        Optional<BeerDTO> loaded = beerCache.get(beerId, id -> {
+            BeerDTO beer = beer(id, 1, "Galaxy");
+            // удаление фиксируется между чтением из базы и записью в кэш
+            beerCache.onBeerChanged(BeerChangedEvent.deleted(beer));
+            return beer;
+        });
+
+        assertThat(loaded).isPresent();
+        assertThat(beerCache.getIfPresent(beerId)).isEmpty();
+    }
+
+    @DisplayName("Concurrent loads and deletes never leave a deleted beer cached")
+    @Test
+    void concurrentDeleteAndLoad() throws Exception {
+        for (int round = 0; round < 200; round++) {
+            UUID beerId = UUID.randomUUID();
+            AtomicBoolean deleted = new AtomicBoolean();
+            CountDownLatch start = new CountDownLatch(1);
+            ExecutorService executor = Executors.newFixedThreadPool(5);
+            try {
+                for (int i = 0; i < 4; i++) {
+                    executor.submit(() -> {
+                        start.await();
+                        return beerCache.get(beerId, id -> deleted.get() ? null : beer(id, 1, "Galaxy"));
+                    });
+                }
+                executor.submit(() -> {
+                    start.await();
+                    deleted.set(true);
+                    beerCache.evict(beerId);
+                    return null;
+                });
+                start.countDown();
+            } finally {
+                executor.shutdown();
+                assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+            }
+
+            assertThat(beerCache.getIfPresent(beerId)).as("round %d", round).isEmpty();
+        }
+    }
+
+    @DisplayName("Older versions never replace newer cached entries")
+    @Test
+    void versionAware() {
+        UUID beerId = UUID.randomUUID();
+        beerCache.put(beer(beerId, 3, "New"));
+        beerCache.put(beer(beerId, 2, "Stale"));
+
+        assertThat(beerCache.getIfPresent(beerId)).get().extracting(BeerDTO::getBeerName).isEqualTo("New");
+    }
+
+    @DisplayName("Writes refresh entries and deletes evict them")
+    @Test
+    void changeEvents() {
+        UUID beerId = UUID.randomUUID();
+        BeerDTO original = beer(beerId, 1, "Galaxy");
+        BeerDTO updated = beer(beerId, 2, "Galaxy 2");
+        beerCache.put(original);
+
+        beerCache.onBeerChanged(BeerChangedEvent.updated(original, updated));
+        assertThat(beerCache.getIfPresent(beerId)).get().extracting(BeerDTO::getVersion).isEqualTo(2);
+
+        beerCache.onBeerChanged(BeerChangedEvent.deleted(updated));
+        assertThat(beerCache.getIfPresent(beerId)).isEmpty();
+    }
+
+    @DisplayName("Callers get copies, so mutating a result does not change the cache")
+    @Test
+    void returnsCopies() {
+        UUID beerId = UUID.randomUUID();
+        beerCache.put(beer(beerId, 1, "Galaxy"));
+
+        beerCache.getIfPresent(beerId).orElseThrow().setQuantityOnHand(null);
+
+        assertThat(beerCache.getIfPresent(beerId)).get().extracting(BeerDTO::getQuantityOnHand).isEqualTo(10);
+    }
+
+    @DisplayName("Size bound evicts entries and counts evictions")
+    @Test
+    void evictsBySize() {
+        for (int i = 0; i < 5; i++) {
+            beerCache.put(beer(UUID.randomUUID(), 1, "Beer " + i));
+        }
+        beerCache.cleanUp();
+
+        assertThat(meterRegistry.get("cache.evictions").functionCounter().count()).isEqualTo(3);
+    }
+
+    private static BeerDTO beer(UUID beerId, int version, String name) {
+        return BeerDTO.builder()
+                .beerId(beerId)
+                .version(version)
+                .beerName(name)
+                .quantityOnHand(10)
+                .build();
+    }
+}
@@ -3,6 +3,7 @@ package org.example.beer.controller;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.controller.BeerController;
 import org.example.dto.BeerDTO;
+import org.example.dto.BeerFilter;
 import org.example.dto.BeerStyle;
 import org.example.entity.Beer;
 import org.example.exception.NotfoundException;
@@ -78,7 +79,7 @@ public class BeerControllerIT {
     @Test
     void testUpdateNotFound() {
         assertThrows(NotfoundException.class, () -> {
-            beerController.updateBeer(UUID.randomUUID(), BeerDTO.builder().build());
+            beerController.updateBeer(UUID.randomUUID(), null, BeerDTO.builder().build());
         });
     }
 
@@ -93,7 +94,7 @@ public class BeerControllerIT {
         final String beerName = "UPDATED";
         beerDTO.setBeerName(beerName);
 
-        ResponseEntity<BeerDTO> responseEntity = beerController.updateBeer(beer.getBeerId(), beerDTO);
+        ResponseEntity<BeerDTO> responseEntity = beerController.updateBeer(beer.getBeerId(), null, beerDTO);
         assertThat(responseEntity.getStatusCode()).isEqualTo(HttpStatus.valueOf(204));
 
         Beer updateBeer = beerRepository.findById(beer.getBeerId()).get();
@@ -102,7 +103,7 @@ public class BeerControllerIT {
 
     @Test
     void testListBeers() {
-        Page<BeerDTO> dtos = beerController.listBeers(null, null, null, 1, 25);
+        Page<BeerDTO> dtos = beerController.listBeers(new BeerFilter(), null, null, 1, 25, null, null).getBody();
         assertThat(dtos.getContent().size()).isEqualTo(3);
     }
 
@@ -165,7 +166,7 @@ public class BeerControllerIT {
     @Test
     void testBeerIdNotFound() {
         assertThrows(ChangeSetPersister.NotFoundException.class, () -> {
-            beerController.getBeerId(UUID.randomUUID());
+            beerController.getBeerId(UUID.randomUUID(), null);
         });
     }
 
@@ -193,7 +194,7 @@ public class BeerControllerIT {
 
         Beer beer = beerRepository.findAll().get(0);
 
-        BeerDTO dto = beerController.getBeerId(beer.getBeerId());
+        BeerDTO dto = beerController.getBeerId(beer.getBeerId(), null).getBody();
 
         assertThat(dto).isNotNull();
     }
@@ -204,7 +205,7 @@ public class BeerControllerIT {
     void testEmptyList() {
 
         beerRepository.deleteAll();
-        Page<BeerDTO> dtos = beerController.listBeers(null, null, null, 1, 25);
+        Page<BeerDTO> dtos = beerController.listBeers(new BeerFilter(), null, null, 1, 25, null, null).getBody();
 
         assertThat(dtos.getContent().size()).isEqualTo(0);
     }
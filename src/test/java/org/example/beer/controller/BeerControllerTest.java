@@ -1,20 +1,32 @@
 package org.example.beer.controller;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.controller.BeerController;
 import org.example.dto.BeerDTO;
+import org.example.dto.BeerStyle;
+import org.example.service.BeerExportService;
+import org.example.service.BeerImportService;
+import org.example.service.BeerInventoryService;
 import org.example.service.BeerService;
+import org.example.service.ingredient.IngredientSnapshot;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
@@ -22,6 +34,8 @@ import java.util.UUID;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.is;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.BDDMockito.given;
 import static org.mockito.Mockito.verify;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
@@ -45,15 +59,52 @@ class BeerControllerTest {
     ObjectMapper mapper;
     @MockBean
     BeerService beerService;
+    @MockBean
+    BeerImportService beerImportService;
+    @MockBean
+    BeerExportService beerExportService;
+    @MockBean
+    BeerInventoryService beerInventoryService;
+    /**
+     * Нужен IngredientByIdConverter, который срез WebMvcTest подхватывает вместе с конвертерами
+     */
+    @MockBean
+    IngredientSnapshot ingredientSnapshot;
     @Captor
     ArgumentCaptor<UUID> uuidArgumentCaptor;
+    Page<BeerDTO> beers;
     @Captor
     ArgumentCaptor<BeerDTO> beerArgumentCaptor;
+    @Captor
+    ArgumentCaptor<JsonNode> patchArgumentCaptor;
+
+    @BeforeEach
+    void setUp() {
+        // данные для ответов моков: сервис в срезе WebMvcTest подменён и сам ничего не вернёт
+        beers = new PageImpl<>(List.of(
+                beer("Galaxy Cat", BeerStyle.PALE_ALE, "12356"),
+                beer("Crank", BeerStyle.PALE_ALE, "12356222"),
+                beer("Sunshine City", BeerStyle.PALE_ALE, "12356")));
+    }
+
+    private static BeerDTO beer(String beerName, BeerStyle beerStyle, String upc) {
+        return BeerDTO.builder()
+                .beerId(UUID.randomUUID())
+                .version(1)
+                .beerName(beerName)
+                .beerStyle(beerStyle)
+                .upc(upc)
+                .price(new BigDecimal("12.99"))
+                .quantityOnHand(122)
+                .createdDate(LocalDateTime.now())
+                .updateDate(LocalDateTime.now())
+                .build();
+    }
 
     @Test
     void getBeerId() {
 
-        BeerDTO testBeer = beerService.listBeers(null, null, null, 1, 25).getContent().get(0);
+        BeerDTO testBeer = beers.getContent().get(0);
 
         given(beerService.getBeerById(testBeer.getBeerId())).willReturn(Optional.of(testBeer));
 
@@ -81,12 +132,12 @@ class BeerControllerTest {
     @Test
     void testCreateNewBeer() throws Exception {
 
-        BeerDTO beer = beerService.listBeers(null, null, null, 1, 25).getContent().get(0);
+        BeerDTO beer = beers.getContent().get(0);
         beer.setVersion(null);
         beer.setBeerId(null);
 
         given(beerService.saveNewBeer(any(BeerDTO.class)))
-                .willReturn(beerService.listBeers(null, null, null, 1, 25).getContent().get(1));
+                .willReturn(beers.getContent().get(1));
 
         mockMvc.perform(post("/beer")
                         .accept(MediaType.APPLICATION_JSON)
@@ -100,27 +151,29 @@ class BeerControllerTest {
     @Test
     void testPatchBeer() throws Exception {
         BeerDTO beer =
-                beerService.listBeers(null, null, null, 1, 25).getContent().get(0);
+                beers.getContent().get(0);
 
         Map<String, Object> beerMap = new HashMap<>();
         beerMap.put("beerName", "New Name");
 
+        given(beerService.patchById(any(), any(), any())).willReturn(Optional.of(beer));
+
         mockMvc.perform(patch(BEER_PATH + beer.getBeerId())
                         .contentType(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(mapper.writeValueAsString(beerMap)))
                 .andExpect(status().isNoContent());
 
-        verify(beerService).patchById(uuidArgumentCaptor.capture(), beerArgumentCaptor.capture());
+        verify(beerService).patchById(uuidArgumentCaptor.capture(), patchArgumentCaptor.capture(), isNull());
 
         assertThat(beer.getBeerId()).isEqualTo(uuidArgumentCaptor.getValue());
-        assertThat(beerMap.get("beerName")).isEqualTo(beerArgumentCaptor.getValue().getBeerName());
+        assertThat(beerMap.get("beerName")).isEqualTo(patchArgumentCaptor.getValue().get("beerName").asText());
     }
 
     @Test
     void testDeleteBeer() throws Exception {
         BeerDTO beer =
-                beerService.listBeers(null, null, null, 1, 25).getContent().get(0);
+                beers.getContent().get(0);
 
         given(beerService.deleteById(any())).willReturn(true);
 
@@ -134,9 +187,9 @@ class BeerControllerTest {
 
     @Test
     void testUpdateBeer() throws Exception {
-        BeerDTO beer = beerService.listBeers(null, null, null, 1, 25).getContent().get(0);
+        BeerDTO beer = beers.getContent().get(0);
 
-        given(beerService.updateBeerById(any(), any())).willReturn(Optional.of(beer));
+        given(beerService.updateBeerById(any(), any(), any())).willReturn(Optional.of(beer));
 
         mockMvc.perform(put(BEER_PATH + beer.getBeerId())
                         .accept(MediaType.APPLICATION_JSON)
@@ -144,14 +197,14 @@ class BeerControllerTest {
                         .content(mapper.writeValueAsString(beer)))
                 .andExpect(status().isNoContent());
 
-        verify(beerService).updateBeerById(any(UUID.class), any(BeerDTO.class));
+        verify(beerService).updateBeerById(any(UUID.class), any(BeerDTO.class), isNull());
     }
 
     @Test
     void testListBeers() {
 
-        given(beerService.listBeers(any(), any(), any(), 1, 25))
-                .willReturn(beerService.listBeers(null, null, false, 1, 25));
+        given(beerService.listBeers(any(), anyBoolean(), any(), any(), any(), any()))
+                .willReturn(beers);
 
         try {
             mockMvc.perform(get("/beer")
@@ -170,14 +223,14 @@ class BeerControllerTest {
         BeerDTO beerDTO = BeerDTO.builder().build();
 
         given(beerService.saveNewBeer(any(BeerDTO.class)))
-                .willReturn(beerService.listBeers(null, null, null, 1, 25).getContent().get(1));
+                .willReturn(beers.getContent().get(1));
 
-        MvcResult mvcResult = mockMvc.perform(post(BEER_PATH)
+        MvcResult mvcResult = mockMvc.perform(post("/beer")
                         .accept(MediaType.APPLICATION_JSON)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(mapper.writeValueAsString(beerDTO)))
                 .andExpect(status().isBadRequest())
-                .andExpect(jsonPath("$.length()", is(2)))
+                .andExpect(jsonPath("$.length()", is(6)))
                 .andReturn();
         System.out.println(mvcResult.getResponse().getContentAsString());
     }
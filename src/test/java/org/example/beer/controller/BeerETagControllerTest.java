@@ -0,0 +1,126 @@
+package org.example.beer.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.BeerDTO;
+import org.example.dto.BeerStyle;
+import org.example.entity.Beer;
+import org.example.repository.BeerRepository;
+import org.example.service.cache.BeerCache;
+import org.example.service.search.BeerNameIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class BeerETagControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    BeerRepository beerRepository;
+    @Autowired
+    BeerNameIndex beerNameIndex;
+    @Autowired
+    BeerCache beerCache;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    Beer beer;
+
+    @BeforeEach
+    void setUp() {
+        beerRepository.deleteAll();
+        beer = beerRepository.save(Beer.builder()
+                .beerName("Galaxy IPA")
+                .beerStyle(BeerStyle.PALE_ALE)
+                .upc("0001")
+                .price(new BigDecimal("9.99"))
+                .build());
+        beerNameIndex.rebuild();
+        beerCache.evictAll();
+    }
+
+    @DisplayName("GET by id carries the version as ETag and answers 304 while it matches")
+    @Test
+    void conditionalGetById() throws Exception {
+        String etag = mockMvc.perform(get("/beer/" + beer.getBeerId()))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + beer.getVersion() + "\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/beer/" + beer.getBeerId()).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+        mockMvc.perform(get("/beer/" + beer.getBeerId()).header(HttpHeaders.IF_NONE_MATCH, "W/" + etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get("/beer/" + beer.getBeerId()).header(HttpHeaders.IF_NONE_MATCH, "\"999\""))
+                .andExpect(status().isOk());
+    }
+
+    @DisplayName("List page ETag changes when a beer on the page changes")
+    @Test
+    void conditionalListPage() throws Exception {
+        String etag = mockMvc.perform(get("/beer"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotBlank();
+
+        mockMvc.perform(get("/beer").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+
+        beer.setBeerName("Galaxy IPA v2");
+        beerRepository.save(beer);
+
+        String changed = mockMvc.perform(get("/beer").header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(changed).isNotEqualTo(etag);
+    }
+
+    @DisplayName("PUT with a stale If-Match is rejected with 412, a current one returns the new ETag")
+    @Test
+    void putWithIfMatch() throws Exception {
+        BeerDTO update = BeerDTO.builder()
+                .beerName("Galaxy DIPA")
+                .beerStyle(BeerStyle.PALE_ALE)
+                .upc("0001")
+                .price(new BigDecimal("10.99"))
+                .build();
+        String body = objectMapper.writeValueAsString(update);
+
+        mockMvc.perform(put("/beer/" + beer.getBeerId())
+                        .header(HttpHeaders.IF_MATCH, "\"" + (beer.getVersion() + 1) + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(put("/beer/" + beer.getBeerId())
+                        .header(HttpHeaders.IF_MATCH, "\"" + beer.getVersion() + "\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + (beer.getVersion() + 1) + "\""));
+
+        assertThat(beerRepository.findById(beer.getBeerId()).orElseThrow().getBeerName())
+                .isEqualTo("Galaxy DIPA");
+    }
+}
@@ -0,0 +1,66 @@
+package org.example.beer.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.dto.BeerDTO;
+import org.example.dto.BeerStyle;
+import org.example.entity.Beer;
+import org.example.repository.BeerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class BeerExportControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    BeerRepository beerRepository;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        beerRepository.deleteAll();
+        for (String name : List.of("Galaxy IPA", "Mango IPA", "Amber Ale")) {
+            beerRepository.save(Beer.builder()
+                    .beerName(name)
+                    .beerStyle(BeerStyle.PALE_ALE)
+                    .upc("0001")
+                    .price(new BigDecimal("9.99"))
+                    .build());
+        }
+    }
+
+    @DisplayName("Export streams one JSON document per beer")
+    @Test
+    void exportAsNdjson() throws Exception {
+        String body = mockMvc.perform(get("/beer/export"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+
+        List<String> lines = Arrays.asList(body.split("\n"));
+        assertThat(lines).hasSize(3);
+        assertThat(lines).extracting(line -> objectMapper.readValue(line, BeerDTO.class).getBeerName())
+                .containsExactlyInAnyOrder("Galaxy IPA", "Mango IPA", "Amber Ale");
+    }
+}
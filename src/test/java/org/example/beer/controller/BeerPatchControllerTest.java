@@ -0,0 +1,116 @@
+package org.example.beer.controller;
+
+import org.example.dto.BeerStyle;
+import org.example.entity.Beer;
+import org.example.repository.BeerRepository;
+import org.example.service.cache.BeerCache;
+import org.example.service.search.BeerNameIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@ExtendWith(OutputCaptureExtension.class)
+class BeerPatchControllerTest {
+
+    private static final String MERGE_PATCH = "application/merge-patch+json";
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    BeerRepository beerRepository;
+    @Autowired
+    BeerNameIndex beerNameIndex;
+    @Autowired
+    BeerCache beerCache;
+
+    Beer beer;
+
+    @BeforeEach
+    void setUp() {
+        beerRepository.deleteAll();
+        beer = beerRepository.save(Beer.builder()
+                .beerName("Galaxy IPA")
+                .beerStyle(BeerStyle.PALE_ALE)
+                .upc("0001")
+                .quantityOnHand(10)
+                .price(new BigDecimal("9.99"))
+                .build());
+        beerNameIndex.rebuild();
+        beerCache.evictAll();
+    }
+
+    @DisplayName("Merge patch writes only the changed column and returns the new version")
+    @Test
+    void patchSingleField(CapturedOutput output) throws Exception {
+        int from = output.getOut().length();
+
+        mockMvc.perform(patch("/beer/" + beer.getBeerId())
+                        .contentType(MERGE_PATCH)
+                        .content("{\"quantityOnHand\": 42}"))
+                .andExpect(status().isNoContent())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"" + (beer.getVersion() + 1) + "\""));
+
+        Beer patched = beerRepository.findById(beer.getBeerId()).orElseThrow();
+        assertThat(patched.getQuantityOnHand()).isEqualTo(42);
+        assertThat(patched.getBeerName()).isEqualTo("Galaxy IPA");
+        assertThat(patched.getPrice()).isEqualByComparingTo("9.99");
+
+        // SQL печатается с форматированием: берём всё между "set" и "where" первого update
+        String sql = output.getOut().substring(from).replaceAll("\\s+", " ");
+        int update = sql.indexOf("update global.\"test-practice\".beer set ");
+        assertThat(update).isNotNegative();
+        String columns = sql.substring(update, sql.indexOf(" where ", update));
+        assertThat(columns).contains("quantity_on_hand").doesNotContain("beer_name", "price", "upc");
+    }
+
+    @DisplayName("Explicit null clears an optional field and is rejected for a required one")
+    @Test
+    void patchNulls() throws Exception {
+        mockMvc.perform(patch("/beer/" + beer.getBeerId())
+                        .contentType(MERGE_PATCH)
+                        .content("{\"quantityOnHand\": null}"))
+                .andExpect(status().isNoContent());
+        assertThat(beerRepository.findById(beer.getBeerId()).orElseThrow().getQuantityOnHand()).isNull();
+
+        mockMvc.perform(patch("/beer/" + beer.getBeerId())
+                        .contentType(MERGE_PATCH)
+                        .content("{\"beerName\": null}"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @DisplayName("Stale If-Match and non-object bodies are rejected")
+    @Test
+    void patchPreconditions() throws Exception {
+        mockMvc.perform(patch("/beer/" + beer.getBeerId())
+                        .contentType(MERGE_PATCH)
+                        .header(HttpHeaders.IF_MATCH, "\"" + (beer.getVersion() + 1) + "\"")
+                        .content("{\"quantityOnHand\": 1}"))
+                .andExpect(status().isPreconditionFailed());
+
+        mockMvc.perform(patch("/beer/" + beer.getBeerId())
+                        .contentType(MERGE_PATCH)
+                        .content("[1, 2]"))
+                .andExpect(status().isBadRequest());
+
+        assertThat(beerRepository.findById(beer.getBeerId()).orElseThrow().getVersion()).isEqualTo(beer.getVersion());
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.beer.controller;
+
+import org.example.TestCaseApplication;
+import org.example.dto.BeerStyle;
+import org.example.entity.Beer;
+import org.example.repository.BeerRepository;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Замкнутая нагрузка из N клиентов на GET /beer при медленной базе: пул платформенных потоков Tomcat
+ * против профиля virtual-threads. Задержка каждого SQL эмулируется через StatementInspector.
+ * Запуск (нужна Java 21): mvn test -Pjava21,benchmark -Dtest=BeerVirtualThreadLoadBenchmark
+ * -Dbenchmark.clients=2000 -Dbenchmark.db-latency-ms=20 -Dbenchmark.duration=PT20S
+ */
+@Tag("benchmark")
+@EnabledForJreRange(min = JRE.JAVA_21)
+class BeerVirtualThreadLoadBenchmark {
+
+    private static final int CLIENTS = Integer.getInteger("benchmark.clients", 2000);
+    private static final Duration DURATION = Duration.parse(System.getProperty("benchmark.duration", "PT20S"));
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final String POOL_SIZE = System.getProperty("benchmark.db-pool-size", "400");
+
+    @Test
+    void compareWithPlatformThreads() {
+        Result platform = run("platform", "test");
+        Result virtual = run("virtual", "test,virtual-threads");
+
+        System.out.printf("%n%,d clients, %s ms per statement, %s connections, %s%n", CLIENTS,
+                SlowStatementInspector.LATENCY_MS, POOL_SIZE, DURATION);
+        System.out.printf("%-10s %12s %10s %10s %10s %8s%n", "threads", "requests/s", "p50, ms", "p99, ms", "max, ms", "errors");
+        for (Result result : List.of(platform, virtual)) {
+            System.out.printf("%-10s %12.0f %10.1f %10.1f %10.1f %8d%n", result.name(), result.throughput(),
+                    result.percentile(50), result.percentile(99), result.percentile(100), result.errors());
+        }
+        assertThat(platform.latencies()).isNotEmpty();
+        assertThat(virtual.latencies()).isNotEmpty();
+    }
+
+    private Result run(String name, String profiles) {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TestCaseApplication.class)
+                .profiles(profiles.split(","))
+                .run("--server.port=0",
+                        "--server.tomcat.accept-count=" + CLIENTS,
+                        "--spring.datasource.hikari.maximum-pool-size=" + POOL_SIZE,
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                                + SlowStatementInspector.class.getName())) {
+            seed(context.getBean(BeerRepository.class));
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            return load(name, URI.create("http://localhost:" + port + "/beer?upcPrefix=0&pageSize=10"));
+        }
+    }
+
+    private static void seed(BeerRepository beerRepository) {
+        List<Beer> beers = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            beers.add(Beer.builder()
+                    .beerName("Beer " + i)
+                    .beerStyle(BeerStyle.PALE_ALE)
+                    .upc("0" + i)
+                    .quantityOnHand(10)
+                    .price(new BigDecimal("9.99"))
+                    .build());
+        }
+        beerRepository.saveAll(beers);
+    }
+
+    private static Result load(String name, URI uri) {
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri).timeout(Duration.ofSeconds(60)).GET().build();
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long end = measureFrom + DURATION.toNanos();
+        LongAdder errors = new LongAdder();
+
+        List<List<Long>> perClient = new ArrayList<>(CLIENTS);
+        List<CompletableFuture<Void>> clients = new ArrayList<>(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            List<Long> latencies = new ArrayList<>();
+            perClient.add(latencies);
+            clients.add(client(http, request, measureFrom, end, latencies, errors));
+        }
+        CompletableFuture.allOf(clients.toArray(CompletableFuture[]::new)).join();
+
+        long[] all = perClient.stream().flatMap(List::stream).mapToLong(Long::longValue).sorted().toArray();
+        return new Result(name, all, DURATION, errors.sum());
+    }
+
+    /**
+     * Клиент шлёт следующий запрос только после ответа на предыдущий; вызовы одной цепочки последовательны,
+     * поэтому список задержек клиента не нуждается в синхронизации
+     */
+    private static CompletableFuture<Void> client(HttpClient http, HttpRequest request, long measureFrom, long end,
+                                                  List<Long> latencies, LongAdder errors) {
+        long start = System.nanoTime();
+        if (start >= end) {
+            return CompletableFuture.completedFuture(null);
+        }
+        return http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .handle((response, failure) -> {
+                    if (failure != null || response.statusCode() != 200) {
+                        errors.increment();
+                    } else if (start >= measureFrom) {
+                        latencies.add(System.nanoTime() - start);
+                    }
+                    return null;
+                })
+                .thenCompose(ignored -> client(http, request, measureFrom, end, latencies, errors));
+    }
+
+    private record Result(String name, long[] latencies, Duration duration, long errors) {
+
+        double throughput() {
+            return latencies.length / (duration.toNanos() / 1e9);
+        }
+
+        double percentile(double percentile) {
+            if (latencies.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(percentile / 100 * latencies.length) - 1;
+            return latencies[Math.max(index, 0)] / 1e6;
+        }
+    }
+
+    /**
+     * Каждый SQL ждёт как сетевой запрос к медленной базе; поток запроса при этом заблокирован
+     */
+    public static class SlowStatementInspector implements StatementInspector {
+
+        static final long LATENCY_MS = Long.getLong("benchmark.db-latency-ms", 20);
+
+        @Override
+        public String inspect(String sql) {
+            try {
+                Thread.sleep(LATENCY_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return sql;
+        }
+    }
+}
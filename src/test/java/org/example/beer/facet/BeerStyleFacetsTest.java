@@ -0,0 +1,120 @@
+package org.example.beer.facet;
+
+import org.example.dto.BeerDTO;
+import org.example.dto.BeerStyle;
+import org.example.dto.BeerStyleFacetDTO;
+import org.example.event.BeerChangedEvent;
+import org.example.repository.BeerRepository;
+import org.example.repository.BeerStylePriceCount;
+import org.example.service.facet.BeerStyleFacets;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+class BeerStyleFacetsTest {
+
+    private BeerRepository beerRepository;
+    private BeerStyleFacets facets;
+
+    @BeforeEach
+    void setUp() {
+        beerRepository = Mockito.mock(BeerRepository.class);
+        given(beerRepository.countByStyleAndPrice()).willReturn(List.of(
+                row(new BigDecimal("5.00"), 2),
+                row(new BigDecimal("8.00"), 1)));
+        facets = new BeerStyleFacets(beerRepository);
+        facets.rebuild();
+    }
+
+    @DisplayName("Rebuild aggregates grouped counts and prices")
+    @Test
+    void rebuildFromGroupBy() {
+        BeerStyleFacetDTO facet = paleAle(true);
+
+        assertThat(facet.count()).isEqualTo(3);
+        assertThat(facet.minPrice()).isEqualByComparingTo("5.00");
+        assertThat(facet.maxPrice()).isEqualByComparingTo("8.00");
+        assertThat(facet.avgPrice()).isEqualByComparingTo("6.00");
+        assertThat(paleAle(false).minPrice()).isNull();
+    }
+
+    @DisplayName("Insert, price change and delete keep counts and price bounds exact")
+    @Test
+    void maintainedFromEvents() {
+        BeerDTO cheap = beer("1.50");
+        facets.onBeerChanged(BeerChangedEvent.created(cheap));
+        assertThat(paleAle(true).count()).isEqualTo(4);
+        assertThat(paleAle(true).minPrice()).isEqualByComparingTo("1.50");
+
+        BeerDTO repriced = cheap.toBuilder().price(new BigDecimal("12.00")).build();
+        facets.onBeerChanged(BeerChangedEvent.updated(cheap, repriced));
+        assertThat(paleAle(true).minPrice()).isEqualByComparingTo("5.00");
+        assertThat(paleAle(true).maxPrice()).isEqualByComparingTo("12.00");
+
+        facets.onBeerChanged(BeerChangedEvent.deleted(repriced));
+        BeerStyleFacetDTO facet = paleAle(true);
+        assertThat(facet.count()).isEqualTo(3);
+        assertThat(facet.maxPrice()).isEqualByComparingTo("8.00");
+        assertThat(facet.avgPrice()).isEqualByComparingTo("6.00");
+    }
+
+    @DisplayName("An event already seen by the GROUP BY is counted twice until the next reconcile")
+    @Test
+    void reconcileFixesDoubleCount() {
+        // строка зафиксирована до запроса, а её событие приходит после перестройки
+        given(beerRepository.countByStyleAndPrice()).willReturn(List.of(
+                row(new BigDecimal("5.00"), 2),
+                row(new BigDecimal("8.00"), 2)));
+        facets.rebuild();
+        facets.onBeerChanged(BeerChangedEvent.created(beer("8.00")));
+        assertThat(paleAle(false).count()).isEqualTo(5);
+
+        facets.rebuild();
+
+        assertThat(paleAle(true).count()).isEqualTo(4);
+        assertThat(paleAle(true).avgPrice()).isEqualByComparingTo("6.50");
+    }
+
+    private BeerStyleFacetDTO paleAle(boolean withPrices) {
+        return facets.styles(withPrices).stream()
+                .filter(facet -> facet.beerStyle() == BeerStyle.PALE_ALE)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    private static BeerDTO beer(String price) {
+        return BeerDTO.builder()
+                .beerId(UUID.randomUUID())
+                .beerName("Galaxy IPA")
+                .beerStyle(BeerStyle.PALE_ALE)
+                .price(new BigDecimal(price))
+                .build();
+    }
+
+    private static BeerStylePriceCount row(BigDecimal price, long beers) {
+        return new BeerStylePriceCount() {
+            @Override
+            public BeerStyle getBeerStyle() {
+                return BeerStyle.PALE_ALE;
+            }
+
+            @Override
+            public BigDecimal getPrice() {
+                return price;
+            }
+
+            @Override
+            public long getBeers() {
+                return beers;
+            }
+        };
+    }
+}
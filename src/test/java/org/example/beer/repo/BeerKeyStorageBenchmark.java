@@ -0,0 +1,138 @@
+package org.example.beer.repo;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.jdbc.JdbcTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Ключи beer/beer_category в varchar(36) против uuid: размер индексов и время поиска по PK и по связи.
+ * Размер считается только на PostgreSQL (pg_relation_size), на H2 печатается время.
+ * Запуск: mvn test -Pbenchmark -Dtest=BeerKeyStorageBenchmark -Dbenchmark.beers=200000
+ * или против PostgreSQL: ... -Dspring.datasource.url=jdbc:postgresql://localhost:5432/global -Dspring.datasource.driver-class-name=org.postgresql.Driver
+ */
+@Tag("benchmark")
+@JdbcTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class BeerKeyStorageBenchmark {
+
+    private static final int CATEGORIES = 50;
+    private static final int LOOKUPS = 20_000;
+
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    @Test
+    void compareKeyTypes() throws SQLException {
+        int beers = Integer.getInteger("benchmark.beers", 200_000);
+        boolean postgres = isPostgres();
+        Random random = new Random(42);
+        List<UUID> beerIds = new ArrayList<>(beers);
+        for (int i = 0; i < beers; i++) {
+            beerIds.add(new UUID(random.nextLong(), random.nextLong()));
+        }
+        List<UUID> categoryIds = beerIds.subList(0, CATEGORIES);
+
+        System.out.printf("%n%,d beers, %d categories%n", beers, CATEGORIES);
+        System.out.printf("%-8s %14s %14s %14s %14s%n", "keys", "pk index, KB", "link idx, KB", "pk lookup, us", "join, ms");
+        for (String type : List.of("varchar(36)", "uuid")) {
+            Function<UUID, Object> bind = type.equals("uuid") ? id -> id : UUID::toString;
+            createTables(type);
+            load(beerIds, categoryIds, bind);
+            jdbcTemplate.execute(postgres ? "analyze bench_beer" : "analyze");
+
+            double lookup = lookupMicros(beerIds, bind, random);
+            double join = joinMillis(categoryIds, bind);
+            String pkSize = postgres ? kilobytes("bench_beer_pkey") : "-";
+            String linkSize = postgres ? kilobytes("bench_beer_category_pkey") : "-";
+            System.out.printf("%-8s %14s %14s %14.2f %14.2f%n", type.startsWith("uuid") ? "uuid" : "varchar",
+                    pkSize, linkSize, lookup, join);
+            dropTables();
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        dropTables();
+    }
+
+    private void createTables(String type) {
+        dropTables();
+        jdbcTemplate.execute("create table bench_beer (beer_id " + type + " not null, beer_name varchar(15), " +
+                "constraint bench_beer_pkey primary key (beer_id))");
+        jdbcTemplate.execute("create table bench_beer_category (category_id " + type + " not null, beer_id " + type +
+                " not null, constraint bench_beer_category_pkey primary key (category_id, beer_id))");
+    }
+
+    private void dropTables() {
+        jdbcTemplate.execute("drop table if exists bench_beer_category");
+        jdbcTemplate.execute("drop table if exists bench_beer");
+    }
+
+    private void load(List<UUID> beerIds, List<UUID> categoryIds, Function<UUID, Object> bind) {
+        List<Object[]> beers = new ArrayList<>();
+        List<Object[]> links = new ArrayList<>();
+        for (int i = 0; i < beerIds.size(); i++) {
+            beers.add(new Object[]{bind.apply(beerIds.get(i)), "Beer " + i});
+            links.add(new Object[]{bind.apply(categoryIds.get(i % categoryIds.size())), bind.apply(beerIds.get(i))});
+            if (beers.size() == 10_000 || i == beerIds.size() - 1) {
+                jdbcTemplate.batchUpdate("insert into bench_beer (beer_id, beer_name) values (?, ?)", beers);
+                jdbcTemplate.batchUpdate("insert into bench_beer_category (category_id, beer_id) values (?, ?)", links);
+                beers.clear();
+                links.clear();
+            }
+        }
+    }
+
+    private double lookupMicros(List<UUID> beerIds, Function<UUID, Object> bind, Random random) {
+        Object[] keys = new Object[LOOKUPS];
+        Arrays.setAll(keys, i -> bind.apply(beerIds.get(random.nextInt(beerIds.size()))));
+        for (int i = 0; i < LOOKUPS / 10; i++) {
+            jdbcTemplate.queryForObject("select beer_name from bench_beer where beer_id = ?", String.class, keys[i]);
+        }
+        long start = System.nanoTime();
+        for (Object key : keys) {
+            jdbcTemplate.queryForObject("select beer_name from bench_beer where beer_id = ?", String.class, key);
+        }
+        return (System.nanoTime() - start) / 1_000.0 / LOOKUPS;
+    }
+
+    private double joinMillis(List<UUID> categoryIds, Function<UUID, Object> bind) {
+        String sql = "select count(b.beer_name) from bench_beer_category bc " +
+                "join bench_beer b on b.beer_id = bc.beer_id where bc.category_id = ?";
+        jdbcTemplate.queryForObject(sql, Long.class, bind.apply(categoryIds.get(0)));
+        long start = System.nanoTime();
+        for (UUID categoryId : categoryIds) {
+            jdbcTemplate.queryForObject(sql, Long.class, bind.apply(categoryId));
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / categoryIds.size();
+    }
+
+    private String kilobytes(String relation) {
+        Long bytes = jdbcTemplate.queryForObject("select pg_relation_size(?::regclass)", Long.class, relation);
+        return String.format("%,d", bytes / 1024);
+    }
+
+    private boolean isPostgres() throws SQLException {
+        try (Connection connection = jdbcTemplate.getDataSource().getConnection()) {
+            return connection.getMetaData().getDatabaseProductName().equalsIgnoreCase("PostgreSQL");
+        }
+    }
+}
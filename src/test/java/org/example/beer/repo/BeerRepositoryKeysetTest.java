@@ -0,0 +1,116 @@
+package org.example.beer.repo;
+
+import org.example.dto.BeerDTO;
+import org.example.dto.BeerFilter;
+import org.example.dto.BeerStyle;
+import org.example.entity.Beer;
+import org.example.repository.BeerRepository;
+import org.example.repository.BeerSpecifications;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+        + "org.example.beer.repo.BeerRepositoryKeysetTest$CapturedStatements")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class BeerRepositoryKeysetTest {
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @BeforeEach
+    void setUp() {
+        beerRepository.deleteAll();
+        for (String name : List.of("Galaxy IPA", "Amber", "Amber", "Zest IPA", "Mango IPA", "Black IPA", "Amber")) {
+            beerRepository.save(Beer.builder()
+                    .beerName(name)
+                    .beerStyle(BeerStyle.PALE_ALE)
+                    .upc("123456")
+                    .quantityOnHand(10)
+                    .price(new BigDecimal("9.99"))
+                    .build());
+        }
+        beerRepository.flush();
+    }
+
+    @DisplayName("Keyset pages walk the whole table without gaps or duplicates")
+    @Test
+    void walkAllPages() {
+        BeerSpecifications.Condition all = BeerSpecifications.condition(new BeerFilter());
+        List<BeerDTO> seen = new ArrayList<>();
+
+        List<BeerDTO> page = beerRepository.findKeysetPage(all, null, null, 3);
+        while (!page.isEmpty()) {
+            seen.addAll(page);
+            BeerDTO last = page.get(page.size() - 1);
+            page = beerRepository.findKeysetPage(all, last.getBeerName(), last.getBeerId(), 3);
+        }
+
+        assertThat(seen).hasSize(7);
+        assertThat(seen).extracting(BeerDTO::getBeerId).doesNotHaveDuplicates();
+        assertThat(seen).extracting(BeerDTO::getBeerName).isSorted();
+    }
+
+    @DisplayName("Keyset pages honour the name filter")
+    @Test
+    void walkFilteredPages() {
+        BeerSpecifications.Condition ipa = BeerSpecifications.condition(BeerFilter.builder()
+                .beerName("ipa")
+                .beerStyle(List.of(BeerStyle.PALE_ALE))
+                .build());
+
+        List<BeerDTO> first = beerRepository.findKeysetPage(ipa, null, null, 2);
+        BeerDTO last = first.get(first.size() - 1);
+        List<BeerDTO> second = beerRepository.findKeysetPage(ipa, last.getBeerName(), last.getBeerId(), 2);
+
+        assertThat(first).extracting(BeerDTO::getBeerName).containsExactly("Black IPA", "Galaxy IPA");
+        assertThat(second).extracting(BeerDTO::getBeerName).containsExactly("Mango IPA", "Zest IPA");
+    }
+
+    @DisplayName("The seek is a row-value comparison and only present filters reach the WHERE clause")
+    @Test
+    void seekIsRowComparison() {
+        BeerDTO first = beerRepository.findKeysetPage(BeerSpecifications.condition(new BeerFilter()), null, null, 1)
+                .get(0);
+        CapturedStatements.STATEMENTS.clear();
+
+        beerRepository.findKeysetPage(BeerSpecifications.condition(new BeerFilter()),
+                first.getBeerName(), first.getBeerId(), 3);
+
+        String sql = CapturedStatements.STATEMENTS.stream()
+                .filter(statement -> statement.contains("order by"))
+                .findFirst()
+                .orElseThrow()
+                .toLowerCase(Locale.ROOT);
+        assertThat(sql).containsPattern("\\(\\(?b1_0\\.beer_name\\)?,\\s*b1_0\\.beer_id\\)\\s*>\\s*\\(\\?,\\s*\\?\\)");
+        assertThat(sql).doesNotContain("is null").doesNotContain(" or ");
+    }
+
+    /**
+     * SQL, который Hibernate отправляет в базу: план на PostgreSQL зависит от формы условия
+     */
+    public static class CapturedStatements implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
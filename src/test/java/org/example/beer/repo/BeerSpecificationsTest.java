@@ -0,0 +1,103 @@
+package org.example.beer.repo;
+
+import org.example.dto.BeerDTO;
+import org.example.dto.BeerFilter;
+import org.example.dto.BeerStyle;
+import org.example.entity.Beer;
+import org.example.repository.BeerRepository;
+import org.example.repository.BeerSpecifications;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class BeerSpecificationsTest {
+
+    @Autowired
+    BeerRepository beerRepository;
+
+    @BeforeEach
+    void setUp() {
+        beerRepository.deleteAll();
+        save("Galaxy IPA", BeerStyle.PALE_ALE, "0631234200", 120, "12.99");
+        save("Mango IPA", BeerStyle.PALE_ALE, "0631234300", 0, "8.50");
+        save("Amber 50%", BeerStyle.PALE_ALE, "0640000001", 40, "6.00");
+        save("Night Porter", BeerStyle.PALE_ALE, "0631239999", 15, "10.00");
+        save("Sunny Lager", BeerStyle.PALE_ALE, "7770000001", 300, "4.25");
+        beerRepository.flush();
+    }
+
+    @DisplayName("Combined criteria are ANDed and only given fields restrict the result")
+    @Test
+    void combinedCriteria() {
+        BeerFilter filter = BeerFilter.builder()
+                .beerStyle(List.of(BeerStyle.PALE_ALE))
+                .minPrice(new BigDecimal("9.00"))
+                .minQuantity(10)
+                .upcPrefix("06312")
+                .build();
+
+        assertThat(names(filter, Sort.by("beerName")))
+                .containsExactly("Galaxy IPA", "Night Porter");
+        assertThat(names(new BeerFilter(), Sort.by("beerName"))).hasSize(5);
+    }
+
+    @DisplayName("Range bounds are inclusive and wildcards in text are matched literally")
+    @Test
+    void rangesAndEscaping() {
+        BeerFilter range = BeerFilter.builder()
+                .minPrice(new BigDecimal("6.00"))
+                .maxPrice(new BigDecimal("10.00"))
+                .maxQuantity(40)
+                .build();
+        assertThat(names(range, Sort.by("price"))).containsExactly("Amber 50%", "Mango IPA", "Night Porter");
+
+        assertThat(names(BeerFilter.builder().beerName("50%").build(), Sort.unsorted()))
+                .containsExactly("Amber 50%");
+        assertThat(names(BeerFilter.builder().upcPrefix("06_").build(), Sort.unsorted())).isEmpty();
+    }
+
+    @DisplayName("Projection honours the page, sort and inventory flag")
+    @Test
+    void pagedProjection() {
+        BeerFilter ipa = BeerFilter.builder().beerName("ipa").beerStyle(List.of(BeerStyle.PALE_ALE)).build();
+
+        Page<BeerDTO> page = beerRepository.findBeerDTOs(BeerSpecifications.matching(ipa), false,
+                PageRequest.of(0, 1, Sort.by(Sort.Order.desc("price"))));
+
+        assertThat(page.getTotalElements()).isEqualTo(2);
+        assertThat(page.getContent()).extracting(BeerDTO::getBeerName).containsExactly("Galaxy IPA");
+        assertThat(page.getContent().get(0).getQuantityOnHand()).isNull();
+        assertThat(page.getContent().get(0).getVersion()).isNotNull();
+    }
+
+    private List<String> names(BeerFilter filter, Sort sort) {
+        return beerRepository.findBeerDTOs(BeerSpecifications.matching(filter), true, PageRequest.of(0, 25, sort))
+                .map(BeerDTO::getBeerName)
+                .getContent();
+    }
+
+    private void save(String name, BeerStyle style, String upc, int quantity, String price) {
+        beerRepository.save(Beer.builder()
+                .beerName(name)
+                .beerStyle(style)
+                .upc(upc)
+                .quantityOnHand(quantity)
+                .price(new BigDecimal(price))
+                .build());
+    }
+}
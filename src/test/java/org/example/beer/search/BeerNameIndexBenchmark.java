@@ -0,0 +1,105 @@
+package org.example.beer.search;
+
+import org.example.repository.BeerRepository;
+import org.example.service.search.BeerNameIndex;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Сравнение поиска по индексу триграмм с LIKE '%...%' в базе.
+ * Запуск: mvn test -Pbenchmark -Dtest=BeerNameIndexBenchmark -Dbenchmark.beers=100000,1000000
+ */
+@Tag("benchmark")
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.show_sql=false")
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(BeerNameIndex.class)
+class BeerNameIndexBenchmark {
+
+    private static final String[] WORDS = {"Galaxy", "Mango", "Amber", "Stout", "Hazy", "Black", "Citra", "Lager"};
+    private static final String[] QUERIES = {"ipa", "hazy ip", "citra 7", "zzz"};
+    private static final int ITERATIONS = 50;
+
+    @Autowired
+    BeerRepository beerRepository;
+    @Autowired
+    BeerNameIndex beerNameIndex;
+    @Autowired
+    DataSource dataSource;
+
+    @Test
+    void compareIndexWithLike() {
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        int[] sizes = Arrays.stream(System.getProperty("benchmark.beers", "100000,1000000").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        for (int size : sizes) {
+            jdbcTemplate.update("delete from \"test-practice\".beer");
+            insertBeers(jdbcTemplate, size);
+            beerRepository.flush();
+            long buildStart = System.nanoTime();
+            beerNameIndex.rebuild();
+            long buildMillis = (System.nanoTime() - buildStart) / 1_000_000;
+
+            System.out.printf("%n%,d beers (index built in %d ms)%n", size, buildMillis);
+            System.out.printf("%-10s %12s %12s %10s%n", "query", "like, us", "index, us", "matches");
+            for (String query : QUERIES) {
+                PageRequest page = PageRequest.of(0, 25);
+                double like = averageMicros(() -> beerRepository
+                        .findAllByBeerNameIsLikeIgnoreCase("%" + query + "%", page).getTotalElements());
+                double index = averageMicros(() -> {
+                    BeerNameIndex.Result result = beerNameIndex.search(query, null, 0, 25);
+                    beerRepository.findAllById(result.ids());
+                    return (long) result.total();
+                });
+                System.out.printf("%-10s %12.1f %12.1f %10d%n", query, like, index,
+                        beerNameIndex.search(query, null, 0, 25).total());
+            }
+        }
+    }
+
+    private static double averageMicros(Supplier<Long> search) {
+        for (int i = 0; i < ITERATIONS / 5; i++) {
+            search.get();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            search.get();
+        }
+        return (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+    }
+
+    private static void insertBeers(JdbcTemplate jdbcTemplate, int size) {
+        Random random = new Random(42);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            String name = WORDS[random.nextInt(WORDS.length)] + (random.nextBoolean() ? " IPA " : " ") + random.nextInt(1000);
+            batch.add(new Object[]{UUID.randomUUID(), 0, name, 0, "0123456789",
+                    random.nextInt(500), new BigDecimal("9.99"), now, now});
+            if (batch.size() == 10_000 || i == size - 1) {
+                jdbcTemplate.batchUpdate("insert into \"test-practice\".beer (beer_id, version, beer_name, beer_style, upc, " +
+                        "quantity_on_hand, price, created_date, update_date) values (?, ?, ?, ?, ?, ?, ?, ?, ?)", batch);
+                batch.clear();
+            }
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package org.example.beer.search;
+
+import org.example.dto.BeerDTO;
+import org.example.dto.BeerStyle;
+import org.example.event.BeerChangedEvent;
+import org.example.repository.BeerRepository;
+import org.example.service.search.BeerNameIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class BeerNameIndexTest {
+
+    private BeerNameIndex index;
+    private BeerDTO galaxy;
+    private BeerDTO mango;
+    private BeerDTO amber;
+
+    @BeforeEach
+    void setUp() {
+        index = new BeerNameIndex(Mockito.mock(BeerRepository.class));
+        galaxy = beer("Galaxy IPA");
+        mango = beer("Mango IPA");
+        amber = beer("Amber Ale");
+        index.onBeerChanged(BeerChangedEvent.created(galaxy));
+        index.onBeerChanged(BeerChangedEvent.created(mango));
+        index.onBeerChanged(BeerChangedEvent.created(amber));
+    }
+
+    @DisplayName("Substring search is case insensitive and sorted by name")
+    @Test
+    void searchSubstring() {
+        assertThat(index.search("ipa", null, 0, 10).ids()).containsExactly(galaxy.getBeerId(), mango.getBeerId());
+        assertThat(index.search("A", null, 0, 10).total()).isEqualTo(3);
+        assertThat(index.search("A", null, 1, 1).ids()).containsExactly(galaxy.getBeerId());
+        assertThat(index.search("lager", null, 0, 10).ids()).isEmpty();
+        assertThat(index.search("ipa", BeerStyle.PALE_ALE, 0, 10).total()).isEqualTo(2);
+    }
+
+    @DisplayName("Order matches the database: names by code point, ids as unsigned bytes")
+    @Test
+    void searchOrderMatchesDatabase() {
+        BeerDTO low = beer("Zest IPA");
+        low.setBeerId(UUID.fromString("00000000-0000-0000-0000-000000000001"));
+        BeerDTO high = beer("Zest IPA");
+        high.setBeerId(UUID.fromString("f0000000-0000-0000-0000-000000000001"));
+        BeerDTO emoji = beer("Zest IPA \uD83C\uDF7A");
+        BeerDTO privateUse = beer("Zest IPA \uE000");
+        List.of(high, emoji, privateUse, low).forEach(beer -> index.onBeerChanged(BeerChangedEvent.created(beer)));
+
+        // UUID.compareTo поставил бы high первым, String.compareTo - суррогатную пару перед U+E000
+        assertThat(index.search("zest", null, 0, 10).ids())
+                .containsExactly(low.getBeerId(), high.getBeerId(), privateUse.getBeerId(), emoji.getBeerId());
+    }
+
+    @DisplayName("Trigram candidates are verified against the full name")
+    @Test
+    void searchRejectsFalsePositives() {
+        // у имени есть все триграммы запроса "ipa al", но не сама подстрока
+        index.onBeerChanged(BeerChangedEvent.created(beer("Ipa a al")));
+
+        assertThat(index.search("ipa al", null, 0, 10).ids()).isEmpty();
+    }
+
+    @DisplayName("Updates and deletes keep the index in sync")
+    @Test
+    void updateAndDelete() {
+        BeerDTO renamed = beer("Lager");
+        renamed.setBeerId(mango.getBeerId());
+        index.onBeerChanged(BeerChangedEvent.updated(mango, renamed));
+        index.onBeerChanged(BeerChangedEvent.deleted(galaxy));
+
+        assertThat(index.search("ipa", null, 0, 10).ids()).isEmpty();
+        assertThat(index.search("lag", null, 0, 10).ids()).containsExactly(mango.getBeerId());
+        assertThat(index.size()).isEqualTo(2);
+    }
+
+    @DisplayName("Compaction after mass deletes keeps live entries")
+    @Test
+    void compactAfterDeletes() {
+        List<BeerDTO> beers = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            BeerDTO beer = beer("Stout " + i);
+            beers.add(beer);
+            index.onBeerChanged(BeerChangedEvent.created(beer));
+        }
+        beers.subList(0, 2900).forEach(beer -> index.onBeerChanged(BeerChangedEvent.deleted(beer)));
+
+        assertThat(index.search("stout", null, 0, 10).total()).isEqualTo(100);
+        assertThat(index.search("ipa", null, 0, 10).total()).isEqualTo(2);
+    }
+
+    private static BeerDTO beer(String name) {
+        return BeerDTO.builder()
+                .beerId(UUID.randomUUID())
+                .beerName(name)
+                .beerStyle(BeerStyle.PALE_ALE)
+                .build();
+    }
+}
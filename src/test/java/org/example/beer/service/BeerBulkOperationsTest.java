@@ -0,0 +1,176 @@
+package org.example.beer.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.dto.BeerDTO;
+import org.example.dto.BeerFilter;
+import org.example.dto.BeerStyle;
+import org.example.dto.BeerStyleFacetDTO;
+import org.example.entity.Beer;
+import org.example.entity.Category;
+import org.example.exception.InvalidFilterException;
+import org.example.repository.BeerRepository;
+import org.example.repository.CategoryRepository;
+import org.example.service.BeerInventoryService;
+import org.example.service.BeerService;
+import org.example.service.cache.BeerCache;
+import org.example.service.cache.BeerCountCache;
+import org.example.service.facet.BeerStyleFacets;
+import org.example.service.search.BeerNameIndex;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.show_sql=false"
+})
+@ActiveProfiles("test")
+class BeerBulkOperationsTest {
+
+    private static final int BEERS = 300;
+
+    @Autowired
+    BeerService beerService;
+    @Autowired
+    BeerRepository beerRepository;
+    @Autowired
+    CategoryRepository categoryRepository;
+    @Autowired
+    BeerInventoryService beerInventoryService;
+    @Autowired
+    BeerNameIndex beerNameIndex;
+    @Autowired
+    BeerCache beerCache;
+    @Autowired
+    BeerCountCache beerCountCache;
+    @Autowired
+    BeerStyleFacets beerStyleFacets;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    JdbcTemplate jdbcTemplate;
+
+    List<UUID> ids;
+    Category seasonal;
+
+    @BeforeEach
+    void setUp() {
+        beerInventoryService.flush();
+        beerRepository.deleteAll();
+        categoryRepository.deleteAll();
+        seasonal = categoryRepository.save(Category.builder().description("Seasonal").build());
+        List<Beer> beers = new ArrayList<>();
+        for (int i = 0; i < BEERS; i++) {
+            Beer beer = Beer.builder()
+                    .beerName(String.format("Beer %04d", i))
+                    .beerStyle(BeerStyle.PALE_ALE)
+                    .upc(i % 2 == 0 ? "0001" : "0002")
+                    .quantityOnHand(10)
+                    .price(new BigDecimal("10.00"))
+                    .build();
+            beer.getCategories().add(seasonal);
+            beers.add(beer);
+        }
+        ids = beerRepository.saveAll(beers).stream().map(Beer::getBeerId).toList();
+        beerNameIndex.rebuild();
+        beerStyleFacets.rebuild();
+        beerCache.evictAll();
+        beerCountCache.invalidateAll();
+    }
+
+    @DisplayName("Reprice by filter is one UPDATE that bumps versions and refreshes cached reads")
+    @Test
+    void repriceByFilter() {
+        BeerDTO cached = beerService.getBeerById(ids.get(0)).orElseThrow();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        int updated = beerService.repriceBeers(BeerFilter.builder().upcPrefix("0001").build(), false, new BigDecimal("-7.5"));
+        long statements = statistics.getPrepareStatementCount();
+
+        assertThat(updated).isEqualTo(BEERS / 2);
+        // UPDATE и GROUP BY пересчёта фасетов
+        assertThat(statements).isEqualTo(2);
+        BeerDTO repriced = beerService.getBeerById(ids.get(0)).orElseThrow();
+        assertThat(repriced.getPrice()).isEqualByComparingTo("9.25");
+        assertThat(repriced.getVersion()).isEqualTo(cached.getVersion() + 1);
+        assertThat(beerService.getBeerById(ids.get(1)).orElseThrow().getPrice()).isEqualByComparingTo("10.00");
+        BeerStyleFacetDTO facet = beerStyleFacets.styles(true).get(0);
+        assertThat(facet.minPrice()).isEqualByComparingTo("9.25");
+    }
+
+    @DisplayName("Delete by ids removes join rows, name index entries and cached totals")
+    @Test
+    void deleteByIds() {
+        assertThat(beerService.countBeers(new BeerFilter()).total()).isEqualTo(BEERS);
+        List<UUID> doomed = new ArrayList<>(ids.subList(0, 100));
+        doomed.add(UUID.randomUUID());
+
+        int deleted = beerService.deleteByIds(doomed);
+
+        assertThat(deleted).isEqualTo(100);
+        assertThat(beerRepository.count()).isEqualTo(BEERS - 100);
+        assertThat(jdbcTemplate.queryForObject("select count(*) from beer_category", Long.class))
+                .isEqualTo(BEERS - 100);
+        assertThat(beerNameIndex.size()).isEqualTo(BEERS - 100);
+        assertThat(beerService.getBeerById(ids.get(0))).isEmpty();
+        assertThat(beerService.countBeers(new BeerFilter()).total()).isEqualTo(BEERS - 100);
+    }
+
+    @DisplayName("Restock adds to the row and keeps unflushed inventory deltas")
+    @Test
+    void restockKeepsPendingDeltas() {
+        UUID beerId = ids.get(0);
+        beerInventoryService.increment(beerId, 5);
+
+        int updated = beerService.restockBeers(new BeerFilter(), true, 20);
+
+        assertThat(updated).isEqualTo(BEERS);
+        assertThat(beerInventoryService.decrement(beerId, 1)).isEqualTo(10 + 5 + 20 - 1);
+        beerInventoryService.flush();
+        assertThat(beerRepository.findQuantityOnHandByBeerId(beerId)).contains(34);
+        assertThat(beerRepository.findQuantityOnHandByBeerId(ids.get(1))).contains(30);
+    }
+
+    @DisplayName("Category filter correlates with the UPDATE root and the multiplier keeps its own scale")
+    @Test
+    void repriceByCategory() {
+        assertThat(beerService.repriceBeers(BeerFilter.builder().categoryId(UUID.randomUUID()).build(), false,
+                new BigDecimal("5"))).isZero();
+
+        int updated = beerService.repriceBeers(BeerFilter.builder().categoryId(seasonal.getId()).build(), false,
+                new BigDecimal("12.345"));
+
+        assertThat(updated).isEqualTo(BEERS);
+        // 10.00 * 1.12345 = 11.2345, округление до копеек
+        assertThat(beerService.getBeerById(ids.get(0)).orElseThrow().getPrice()).isEqualByComparingTo("11.23");
+    }
+
+    @DisplayName("A bulk update without any criterion is rejected unless all=true is explicit")
+    @Test
+    void unrestrictedBulkUpdateRejected() {
+        assertThatThrownBy(() -> beerService.repriceBeers(new BeerFilter(), false, new BigDecimal("5")))
+                .isInstanceOf(InvalidFilterException.class);
+        assertThatThrownBy(() -> beerService.restockBeers(BeerFilter.builder().beerName(" ").upcPrefix("").build(),
+                false, 5)).isInstanceOf(InvalidFilterException.class);
+
+        assertThat(beerRepository.findAll()).allSatisfy(beer -> {
+            assertThat(beer.getPrice()).isEqualByComparingTo("10.00");
+            assertThat(beer.getQuantityOnHand()).isEqualTo(10);
+        });
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.beer.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.dto.BeerDTO;
+import org.example.dto.BeerFilter;
+import org.example.dto.BeerStyle;
+import org.example.dto.CategoryDTO;
+import org.example.entity.Beer;
+import org.example.entity.Category;
+import org.example.repository.BeerRepository;
+import org.example.repository.CategoryRepository;
+import org.example.service.BeerService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.properties.hibernate.show_sql=false"
+})
+@ActiveProfiles("test")
+class BeerCategoryListingTest {
+
+    private static final int BEERS = 1200;
+
+    @Autowired
+    BeerService beerService;
+    @Autowired
+    BeerRepository beerRepository;
+    @Autowired
+    CategoryRepository categoryRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+
+    Category ale;
+    Category seasonal;
+
+    @BeforeEach
+    void setUp() {
+        beerRepository.deleteAll();
+        categoryRepository.deleteAll();
+        ale = categoryRepository.save(Category.builder().description("Ale").build());
+        seasonal = categoryRepository.save(Category.builder().description("Seasonal").build());
+
+        List<Beer> beers = new ArrayList<>();
+        for (int i = 0; i < BEERS; i++) {
+            Beer beer = Beer.builder()
+                    .beerName(String.format("Beer %04d", i))
+                    .beerStyle(BeerStyle.PALE_ALE)
+                    .upc("0001")
+                    .price(new BigDecimal("9.99"))
+                    .build();
+            beer.getCategories().add(ale);
+            if (i % 2 == 0) {
+                beer.getCategories().add(seasonal);
+            }
+            beers.add(beer);
+        }
+        beerRepository.saveAll(beers);
+    }
+
+    @DisplayName("Category filter and include=categories cost the same statements for 10 and 1000 rows")
+    @Test
+    void constantStatementCount() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        Page<BeerDTO> small = beerService.listBeers(inCategory(ale), true, true, 1, 10, null);
+        long smallStatements = statistics.getPrepareStatementCount();
+
+        statistics.clear();
+        Page<BeerDTO> large = beerService.listBeers(inCategory(ale), true, true, 1, 1000, null);
+        long largeStatements = statistics.getPrepareStatementCount();
+
+        assertThat(small.getTotalElements()).isEqualTo(BEERS);
+        assertThat(large.getContent()).hasSize(1000);
+        // страница, count и один join-запрос категорий
+        assertThat(largeStatements).isEqualTo(3).isEqualTo(smallStatements);
+        assertThat(statistics.getCollectionFetchCount()).isZero();
+        assertThat(large.getContent().get(0).getCategories()).extracting(CategoryDTO::getDescription)
+                .containsExactlyInAnyOrder("Ale", "Seasonal");
+        assertThat(large.getContent().get(1).getCategories()).extracting(CategoryDTO::getDescription)
+                .containsExactly("Ale");
+    }
+
+    @DisplayName("Category filter narrows the page and categories are left out unless requested")
+    @Test
+    void filterByCategory() {
+        Page<BeerDTO> page = beerService.listBeers(inCategory(seasonal), false, false, 1, 25, null);
+
+        assertThat(page.getTotalElements()).isEqualTo(BEERS / 2);
+        assertThat(page.getContent()).extracting(BeerDTO::getCategories).containsOnlyNulls();
+        assertThat(page.getContent()).extracting(BeerDTO::getQuantityOnHand).containsOnlyNulls();
+    }
+
+    private static BeerFilter inCategory(Category category) {
+        return BeerFilter.builder().categoryId(category.getId()).build();
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.beer.service;
+
+import org.example.dto.BeerImportError;
+import org.example.dto.BeerImportFormat;
+import org.example.dto.BeerImportReport;
+import org.example.repository.BeerRepository;
+import org.example.service.BeerImportService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BeerImportServiceTest {
+
+    @Autowired
+    BeerImportService beerImportService;
+    @Autowired
+    BeerRepository beerRepository;
+
+    @BeforeEach
+    void setUp() {
+        beerRepository.deleteAll();
+    }
+
+    @DisplayName("NDJSON import stores valid rows and reports invalid ones")
+    @Test
+    void importNdjson() throws Exception {
+        String body = """
+                {"beerName":"Galaxy IPA","beerStyle":"PALE_ALE","upc":"0001","price":9.99,"quantityOnHand":12}
+                {"beerName":"","beerStyle":"PALE_ALE","upc":"0002","price":9.99}
+                {"beerName":"Mango IPA","beerStyle":"PALE_ALE","upc":"0003","price":8.50}
+                {not json}
+
+                {"beerName":"Amber Ale","beerStyle":"PALE_ALE","upc":"0004","price":7.25}
+                """;
+
+        BeerImportReport report = beerImportService.importBeers(stream(body), BeerImportFormat.NDJSON, 2);
+
+        assertThat(report.getRows()).isEqualTo(5);
+        assertThat(report.getAccepted()).isEqualTo(3);
+        assertThat(report.getRejected()).isEqualTo(2);
+        assertThat(report.getErrors()).extracting(BeerImportError::row).contains(2L, 4L);
+        assertThat(beerRepository.count()).isEqualTo(3);
+    }
+
+    @DisplayName("CSV import maps columns by header and checks entity limits")
+    @Test
+    void importCsv() throws Exception {
+        String body = """
+                price,beerName,beerStyle,upc,quantityOnHand
+                9.99,"Hazy, Juicy",pale_ale,0001,5
+                abc,Bad Price,PALE_ALE,0002,5
+                4.50,A Name Far Too Long For Beer,PALE_ALE,0003,5
+                """;
+
+        BeerImportReport report = beerImportService.importBeers(stream(body), BeerImportFormat.CSV, null);
+
+        assertThat(report.getAccepted()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(BeerImportError::row, BeerImportError::field)
+                .containsExactlyInAnyOrder(
+                        tuple(3L, "price"),
+                        tuple(4L, "beerName"));
+        assertThat(beerRepository.findAll()).extracting("beerName").containsExactly("Hazy, Juicy");
+    }
+
+    @DisplayName("A row over the line length limit is reported as an error and the import goes on")
+    @Test
+    void oversizedLine() throws Exception {
+        String body = "{\"beerName\":\"" + "x".repeat(70_000) + "\"}\n"
+                + "{\"beerName\":\"Galaxy IPA\",\"beerStyle\":\"PALE_ALE\",\"upc\":\"0001\",\"price\":9.99}\n";
+
+        BeerImportReport report = beerImportService.importBeers(stream(body), BeerImportFormat.NDJSON, null);
+
+        assertThat(report.getRows()).isEqualTo(2);
+        assertThat(report.getAccepted()).isEqualTo(1);
+        assertThat(report.getErrors()).extracting(BeerImportError::row).containsExactly(1L);
+        assertThat(beerRepository.findAll()).extracting("beerName").containsExactly("Galaxy IPA");
+    }
+
+    private static ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+}
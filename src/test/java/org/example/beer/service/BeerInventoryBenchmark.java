@@ -0,0 +1,115 @@
+package org.example.beer.service;
+
+import org.example.dto.BeerStyle;
+import org.example.entity.Beer;
+import org.example.exception.InsufficientStockException;
+import org.example.repository.BeerRepository;
+import org.example.service.BeerInventoryService;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Конкурентное списание остатков одного пива: чтение-изменение-запись строки с @Version
+ * против счётчика в памяти со сбросом батчем.
+ * Запуск: mvn test -Pbenchmark -Dtest=BeerInventoryBenchmark -Dbenchmark.threads=4,16,64
+ */
+@Tag("benchmark")
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.show_sql=false")
+@ActiveProfiles("test")
+class BeerInventoryBenchmark {
+
+    private static final int DECREMENTS_PER_THREAD = 500;
+
+    @Autowired
+    BeerRepository beerRepository;
+    @Autowired
+    BeerInventoryService beerInventoryService;
+
+    @Test
+    void compareVersionedRowWithCounter() throws Exception {
+        int[] threads = Arrays.stream(System.getProperty("benchmark.threads", "4,16,64").split(","))
+                .mapToInt(Integer::parseInt)
+                .toArray();
+
+        System.out.printf("%n%-8s %-10s %14s %12s %12s%n", "threads", "strategy", "decrements/s", "conflicts", "final qty");
+        for (int threadCount : threads) {
+            int total = threadCount * DECREMENTS_PER_THREAD;
+
+            UUID versioned = newBeer(total);
+            AtomicLong conflicts = new AtomicLong();
+            double rowRate = run(threadCount, () -> {
+                while (true) {
+                    try {
+                        Beer beer = beerRepository.findById(versioned).orElseThrow();
+                        beer.setQuantityOnHand(beer.getQuantityOnHand() - 1);
+                        beerRepository.save(beer);
+                        return;
+                    } catch (ObjectOptimisticLockingFailureException e) {
+                        conflicts.incrementAndGet();
+                    }
+                }
+            });
+            print(threadCount, "@Version", rowRate, conflicts.get(), versioned);
+
+            UUID counted = newBeer(total);
+            AtomicLong rejected = new AtomicLong();
+            double counterRate = run(threadCount, () -> {
+                try {
+                    beerInventoryService.decrement(counted, 1);
+                } catch (InsufficientStockException e) {
+                    rejected.incrementAndGet();
+                }
+            });
+            beerInventoryService.flush();
+            print(threadCount, "counter", counterRate, rejected.get(), counted);
+        }
+    }
+
+    private double run(int threadCount, Runnable decrement) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        long start = System.nanoTime();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < DECREMENTS_PER_THREAD; i++) {
+                    decrement.run();
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        executor.shutdown();
+        return threadCount * DECREMENTS_PER_THREAD / seconds;
+    }
+
+    private void print(int threadCount, String strategy, double rate, long conflicts, UUID beerId) {
+        System.out.printf("%-8d %-10s %14.0f %12d %12d%n", threadCount, strategy, rate, conflicts,
+                beerRepository.findById(beerId).orElseThrow().getQuantityOnHand());
+    }
+
+    private UUID newBeer(int quantityOnHand) {
+        return beerRepository.save(Beer.builder()
+                .beerName("Bench " + quantityOnHand)
+                .beerStyle(BeerStyle.PALE_ALE)
+                .upc("0001")
+                .quantityOnHand(quantityOnHand)
+                .price(new BigDecimal("9.99"))
+                .build()).getBeerId();
+    }
+}
@@ -0,0 +1,172 @@
+package org.example.beer.service;
+
+import org.example.dto.BeerStyle;
+import org.example.entity.Beer;
+import org.example.event.BeersBulkChangedEvent;
+import org.example.exception.InsufficientStockException;
+import org.example.exception.NotfoundException;
+import org.example.repository.BeerRepository;
+import org.example.service.BeerInventoryService;
+import org.example.service.BeerService;
+import org.example.service.cache.BeerCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BeerInventoryServiceTest {
+
+    @Autowired
+    BeerInventoryService beerInventoryService;
+    @Autowired
+    BeerRepository beerRepository;
+    @Autowired
+    BeerCache beerCache;
+    @Autowired
+    BeerService beerService;
+    @Autowired
+    ApplicationEventPublisher eventPublisher;
+
+    Beer beer;
+
+    @BeforeEach
+    void setUp() {
+        beerInventoryService.flush();
+        beerRepository.deleteAll();
+        beerCache.evictAll();
+        beer = beerRepository.save(Beer.builder()
+                .beerName("Galaxy IPA")
+                .beerStyle(BeerStyle.PALE_ALE)
+                .upc("0001")
+                .quantityOnHand(1000)
+                .price(new BigDecimal("9.99"))
+                .build());
+    }
+
+    @DisplayName("Concurrent decrements never oversell and are flushed as one atomic update")
+    @Test
+    void concurrentDecrements() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    try {
+                        beerInventoryService.decrement(beer.getBeerId(), 1);
+                        sold.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        rejected.incrementAndGet();
+                    }
+                }
+            }));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(sold).hasValue(1000);
+        assertThat(rejected).hasValue(600);
+
+        beerInventoryService.flush();
+        Beer flushed = beerRepository.findById(beer.getBeerId()).orElseThrow();
+        assertThat(flushed.getQuantityOnHand()).isZero();
+        assertThat(flushed.getVersion()).isGreaterThan(beer.getVersion());
+    }
+
+    @DisplayName("Resyncs racing with reservations never hand out stock twice")
+    @Test
+    void concurrentDecrementsAndRestock() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(9);
+        AtomicInteger sold = new AtomicInteger();
+        AtomicBoolean selling = new AtomicBoolean(true);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int thread = 0; thread < 8; thread++) {
+            futures.add(executor.submit(() -> {
+                for (int i = 0; i < 200; i++) {
+                    try {
+                        beerInventoryService.decrement(beer.getBeerId(), 1);
+                        sold.incrementAndGet();
+                    } catch (InsufficientStockException e) {
+                        // товар кончился
+                    }
+                }
+            }));
+        }
+        // массовое пополнение на ноль: строка в базе не меняется, но счётчик перечитывается посреди продаж
+        Future<?> restocks = executor.submit(() -> {
+            while (selling.get()) {
+                eventPublisher.publishEvent(BeersBulkChangedEvent.restocked());
+            }
+        });
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        selling.set(false);
+        restocks.get();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(sold).hasValue(1000);
+        beerInventoryService.flush();
+        assertThat(beerRepository.findById(beer.getBeerId()).orElseThrow().getQuantityOnHand()).isZero();
+    }
+
+    @DisplayName("Increments become available immediately and reach the database on flush")
+    @Test
+    void incrementThenFlush() {
+        assertThat(beerInventoryService.increment(beer.getBeerId(), 5)).isEqualTo(1005);
+        assertThat(beerInventoryService.decrement(beer.getBeerId(), 1005)).isZero();
+        assertThatThrownBy(() -> beerInventoryService.decrement(beer.getBeerId(), 1))
+                .isInstanceOf(InsufficientStockException.class);
+        assertThat(beerInventoryService.increment(beer.getBeerId(), 3)).isEqualTo(3);
+
+        beerInventoryService.flush();
+
+        assertThat(beerRepository.findById(beer.getBeerId()).orElseThrow().getQuantityOnHand()).isEqualTo(3);
+    }
+
+    @DisplayName("Deleting a beer drops its counter instead of keeping it for the life of the service")
+    @Test
+    void deletedBeerForgotten() {
+        Beer other = beerRepository.save(Beer.builder()
+                .beerName("Crank")
+                .beerStyle(BeerStyle.PALE_ALE)
+                .upc("0002")
+                .quantityOnHand(10)
+                .price(new BigDecimal("9.99"))
+                .build());
+        beerInventoryService.increment(beer.getBeerId(), 1);
+        beerInventoryService.increment(other.getBeerId(), 1);
+
+        beerService.deleteById(beer.getBeerId());
+        beerService.deleteByIds(List.of(other.getBeerId()));
+
+        // счётчика нет, поэтому сервис снова идёт в базу и не находит строку
+        assertThatThrownBy(() -> beerInventoryService.increment(beer.getBeerId(), 1))
+                .isInstanceOf(NotfoundException.class);
+        assertThatThrownBy(() -> beerInventoryService.increment(other.getBeerId(), 1))
+                .isInstanceOf(NotfoundException.class);
+    }
+}
@@ -0,0 +1,176 @@
+package org.example.beer.service;
+
+import org.example.dto.BeerDTO;
+import org.example.dto.BeerFilter;
+import org.example.dto.BeerStyle;
+import org.example.exception.InvalidFilterException;
+import org.example.repository.BeerRepository;
+import org.example.service.BeerService;
+import org.example.service.cache.BeerCountCache;
+import org.example.service.search.BeerNameIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class BeerServiceListingTest {
+
+    @Autowired
+    BeerService beerService;
+    @Autowired
+    BeerRepository beerRepository;
+    @Autowired
+    BeerNameIndex beerNameIndex;
+    @Autowired
+    BeerCountCache beerCountCache;
+
+    @BeforeEach
+    void setUp() {
+        beerRepository.deleteAll();
+        beerNameIndex.rebuild();
+        beerCountCache.invalidateAll();
+        for (String name : List.of("Galaxy IPA", "Mango IPA", "Amber Ale", "Black IPA")) {
+            beerService.saveNewBeer(BeerDTO.builder()
+                    .beerName(name)
+                    .beerStyle(BeerStyle.PALE_ALE)
+                    .upc("0001")
+                    .quantityOnHand(12)
+                    .price(new BigDecimal("9.99"))
+                    .build());
+        }
+    }
+
+    @DisplayName("Listing without inventory leaves quantityOnHand out and untouched in the database")
+    @Test
+    void listWithoutInventory() {
+        Page<BeerDTO> page = beerService.listBeers(null, null, false, 1, 25);
+
+        assertThat(page.getTotalElements()).isEqualTo(4);
+        assertThat(page.getContent()).extracting(BeerDTO::getQuantityOnHand).containsOnlyNulls();
+        assertThat(page.getContent()).extracting(BeerDTO::getBeerName).isSorted();
+        assertThat(beerRepository.findAll()).allSatisfy(beer -> assertThat(beer.getQuantityOnHand()).isEqualTo(12));
+    }
+
+    @DisplayName("Name and style filters page through projections")
+    @Test
+    void listByNameAndStyle() {
+        Page<BeerDTO> first = beerService.listBeers("ipa", BeerStyle.PALE_ALE, true, 1, 2);
+        Page<BeerDTO> second = beerService.listBeers("ipa", BeerStyle.PALE_ALE, true, 2, 2);
+
+        assertThat(first.getTotalElements()).isEqualTo(3);
+        assertThat(first.getContent()).extracting(BeerDTO::getBeerName).containsExactly("Black IPA", "Galaxy IPA");
+        assertThat(second.getContent()).extracting(BeerDTO::getBeerName).containsExactly("Mango IPA");
+        assertThat(second.getContent()).extracting(BeerDTO::getQuantityOnHand).containsOnly(12);
+    }
+
+    @DisplayName("Style filter alone uses the projection query")
+    @Test
+    void listByStyle() {
+        Page<BeerDTO> page = beerService.listBeers(null, BeerStyle.PALE_ALE, null, 1, 25);
+
+        assertThat(page.getContent()).hasSize(4);
+        assertThat(page.getContent()).extracting(BeerDTO::getVersion).doesNotContainNull();
+    }
+
+    @DisplayName("Slice mode detects the next page without a total")
+    @Test
+    void listSlice() {
+        Slice<BeerDTO> first = beerService.listBeersSlice(new BeerFilter(), true, 1, 3);
+        Slice<BeerDTO> last = beerService.listBeersSlice(new BeerFilter(), true, 2, 3);
+        Slice<BeerDTO> byName = beerService.listBeersSlice(BeerFilter.builder().beerName("ipa").build(), false, 1, 2);
+
+        assertThat(first.getContent()).hasSize(3);
+        assertThat(first.hasNext()).isTrue();
+        assertThat(last.getContent()).extracting(BeerDTO::getBeerName).containsExactly("Mango IPA");
+        assertThat(last.hasNext()).isFalse();
+        assertThat(byName.getContent()).extracting(BeerDTO::getBeerName).containsExactly("Black IPA", "Galaxy IPA");
+        assertThat(byName.hasNext()).isTrue();
+    }
+
+    @DisplayName("Non-ASCII names match case-insensitively on the index and on every database path")
+    @Test
+    void nonAsciiCaseInsensitive() {
+        for (String name : List.of("Жигулёвское", "ЖИГУЛИ Барное")) {
+            beerService.saveNewBeer(BeerDTO.builder()
+                    .beerName(name)
+                    .beerStyle(BeerStyle.PALE_ALE)
+                    .upc("0002")
+                    .quantityOnHand(12)
+                    .price(new BigDecimal("9.99"))
+                    .build());
+        }
+        BeerFilter filter = BeerFilter.builder().beerName("жигул").build();
+
+        // без сортировки отвечает индекс в памяти, с явной сортировкой - запрос к базе
+        Page<BeerDTO> fromIndex = beerService.listBeers(filter, false, true, 1, 25, null);
+        Page<BeerDTO> fromDatabase = beerService.listBeers(filter, false, true, 1, 25, List.of("beerName"));
+
+        assertThat(fromIndex.getContent()).extracting(BeerDTO::getBeerName)
+                .containsExactly("ЖИГУЛИ Барное", "Жигулёвское");
+        assertThat(fromDatabase.getContent()).extracting(BeerDTO::getBeerName)
+                .containsExactlyElementsOf(fromIndex.getContent().stream().map(BeerDTO::getBeerName).toList());
+        assertThat(beerService.listBeersByCursor(BeerFilter.builder().beerName("ЖИГУЛ").build(), true, null, 25)
+                .getContent()).hasSize(2);
+        assertThat(beerService.countBeers(BeerFilter.builder().beerName("Жигул").build()).total()).isEqualTo(2);
+    }
+
+    @DisplayName("Slice, cursor and count modes apply every filter field, not only name and style")
+    @Test
+    void allModesApplyFullFilter() {
+        beerService.saveNewBeer(BeerDTO.builder()
+                .beerName("Cheap IPA")
+                .beerStyle(BeerStyle.PALE_ALE)
+                .upc("0003")
+                .quantityOnHand(1)
+                .price(new BigDecimal("4.50"))
+                .build());
+        BeerFilter filter = BeerFilter.builder().beerName("ipa").maxPrice(new BigDecimal("5.00")).build();
+
+        assertThat(beerService.listBeersSlice(filter, true, 1, 25).getContent())
+                .extracting(BeerDTO::getBeerName).containsExactly("Cheap IPA");
+        assertThat(beerService.listBeersByCursor(filter, true, null, 25).getContent())
+                .extracting(BeerDTO::getBeerName).containsExactly("Cheap IPA");
+        assertThat(beerService.countBeers(filter).total()).isEqualTo(1);
+        assertThat(beerService.countBeers(filter.toBuilder().maxPrice(null).minQuantity(10).build()).total())
+                .isEqualTo(3);
+    }
+
+    @DisplayName("Approximate count is served from the cache until it is refreshed")
+    @Test
+    void approximateCount() {
+        BeerFilter upper = BeerFilter.builder().beerName("IPA").beerStyle(List.of(BeerStyle.PALE_ALE)).build();
+        BeerFilter lower = upper.toBuilder().beerName("ipa").build();
+        assertThat(beerService.countBeers(upper).total()).isEqualTo(3);
+
+        beerRepository.deleteAll();
+        assertThat(beerService.countBeers(lower).total()).isEqualTo(3);
+
+        beerCountCache.invalidateAll();
+        assertThat(beerService.countBeers(lower).total()).isZero();
+    }
+
+    @DisplayName("Sort keys order the filtered page and unknown keys are rejected")
+    @Test
+    void sortedFilter() {
+        BeerFilter ipa = BeerFilter.builder().beerName("ipa").build();
+
+        Page<BeerDTO> page = beerService.listBeers(ipa, false, false, 1, 25, List.of("-beerName"));
+
+        assertThat(page.getContent()).extracting(BeerDTO::getBeerName)
+                .containsExactly("Mango IPA", "Galaxy IPA", "Black IPA");
+        assertThatThrownBy(() -> beerService.listBeers(ipa, false, false, 1, 25, List.of("version")))
+                .isInstanceOf(InvalidFilterException.class);
+    }
+}
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import org.example.controller.EmployeeController;
 import org.example.entity.Employee;
 import org.example.service.EmployeeService;
+import org.example.service.ingredient.IngredientSnapshot;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -37,6 +38,11 @@ class EmployeeControllerTest {
     private MockMvc mockMvc;
     @MockBean
     private EmployeeService employeeService;
+    /**
+     * Нужен IngredientByIdConverter, который срез WebMvcTest подхватывает вместе с конвертерами
+     */
+    @MockBean
+    IngredientSnapshot ingredientSnapshot;
     @Autowired
     private ObjectMapper mapper = new ObjectMapper();
     private Employee employee;
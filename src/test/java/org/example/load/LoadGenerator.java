@@ -0,0 +1,156 @@
+package org.example.load;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Открытая нагрузка с заданной частотой: запросы уходят по расписанию, а не после ответа на предыдущий.
+ * Задержка считается от запланированного момента отправки, поэтому отставание генератора и очередь
+ * на сервере попадают в распределение (поправка на coordinated omission). Для сравнения рядом
+ * пишется и «сырая» задержка от фактической отправки.
+ */
+class LoadGenerator {
+
+    private static final long MAX_LATENCY = TimeUnit.MINUTES.toNanos(1);
+
+    private final HttpClient http;
+    private final List<Scenario> scenarios;
+    private final int totalWeight;
+    private final Random random = new Random(42);
+
+    LoadGenerator(HttpClient http, List<Scenario> scenarios) {
+        this.http = http;
+        this.scenarios = scenarios;
+        this.totalWeight = scenarios.stream().mapToInt(Scenario::weight).sum();
+    }
+
+    /**
+     * Сценарий - один или несколько HTTP-вызовов, которые считаются одной операцией
+     */
+    interface Action {
+        /**
+         * @return true, если операция завершилась успешно
+         */
+        CompletableFuture<Boolean> execute(HttpClient http);
+    }
+
+    record Scenario(String name, int weight, Action action) {
+    }
+
+    Report run(double ratePerSecond, Duration warmup, Duration duration) {
+        Map<String, EndpointStats> stats = new LinkedHashMap<>();
+        scenarios.forEach(scenario -> stats.put(scenario.name(), new EndpointStats()));
+
+        long interval = (long) (TimeUnit.SECONDS.toNanos(1) / ratePerSecond);
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        List<CompletableFuture<?>> inFlight = new ArrayList<>();
+        long maxLag = 0;
+
+        for (long i = 0; ; i++) {
+            long intended = start + i * interval;
+            if (intended >= end) {
+                break;
+            }
+            long now;
+            while ((now = System.nanoTime()) < intended) {
+                LockSupport.parkNanos(intended - now);
+            }
+            boolean measured = intended >= measureFrom;
+            if (measured) {
+                maxLag = Math.max(maxLag, now - intended);
+            }
+            Scenario scenario = pick();
+            EndpointStats endpoint = stats.get(scenario.name());
+            long sent = now;
+            CompletableFuture<Boolean> call;
+            try {
+                call = scenario.action().execute(http);
+            } catch (RuntimeException e) {
+                call = CompletableFuture.failedFuture(e);
+            }
+            inFlight.add(call.handle((ok, failure) -> {
+                if (measured) {
+                    endpoint.record(intended, sent, System.nanoTime(), failure == null && Boolean.TRUE.equals(ok));
+                }
+                return null;
+            }));
+            if (inFlight.size() >= 10_000) {
+                inFlight.removeIf(CompletableFuture::isDone);
+            }
+        }
+        CompletableFuture.allOf(inFlight.toArray(CompletableFuture[]::new)).join();
+        return new Report(ratePerSecond, duration, maxLag, stats);
+    }
+
+    private Scenario pick() {
+        int ticket = random.nextInt(totalWeight);
+        for (Scenario scenario : scenarios) {
+            ticket -= scenario.weight();
+            if (ticket < 0) {
+                return scenario;
+            }
+        }
+        throw new IllegalStateException("empty mix");
+    }
+
+    static final class EndpointStats {
+
+        final Histogram corrected = new ConcurrentHistogram(MAX_LATENCY, 3);
+        final Histogram raw = new ConcurrentHistogram(MAX_LATENCY, 3);
+        final LongAdder errors = new LongAdder();
+
+        void record(long intended, long sent, long completed, boolean ok) {
+            if (!ok) {
+                errors.increment();
+                return;
+            }
+            corrected.recordValue(Math.min(completed - intended, MAX_LATENCY));
+            raw.recordValue(Math.min(completed - sent, MAX_LATENCY));
+        }
+    }
+
+    record Report(double targetRate, Duration duration, long maxSchedulerLag, Map<String, EndpointStats> endpoints) {
+
+        long successes() {
+            return endpoints.values().stream().mapToLong(stats -> stats.corrected.getTotalCount()).sum();
+        }
+
+        long errors() {
+            return endpoints.values().stream().mapToLong(stats -> stats.errors.sum()).sum();
+        }
+
+        void print(PrintStream out) {
+            double seconds = duration.toNanos() / 1e9;
+            out.printf("%ntarget %.0f req/s for %s, max scheduler lag %.1f ms%n", targetRate, duration, maxSchedulerLag / 1e6);
+            out.printf("%-10s %9s %8s %9s %9s %9s %9s %13s%n",
+                    "endpoint", "req/s", "errors", "p50, ms", "p99, ms", "p999, ms", "max, ms", "raw p99, ms");
+            endpoints.forEach((name, stats) -> {
+                long ok = stats.corrected.getTotalCount();
+                long errors = stats.errors.sum();
+                double errorRate = ok + errors == 0 ? 0 : 100.0 * errors / (ok + errors);
+                out.printf("%-10s %9.1f %7.2f%% %9.2f %9.2f %9.2f %9.2f %13.2f%n", name, (ok + errors) / seconds,
+                        errorRate, millis(stats.corrected, 50), millis(stats.corrected, 99),
+                        millis(stats.corrected, 99.9), stats.corrected.getMaxValue() / 1e6, millis(stats.raw, 99));
+            });
+        }
+
+        private static double millis(Histogram histogram, double percentile) {
+            return histogram.getValueAtPercentile(percentile) / 1e6;
+        }
+    }
+}
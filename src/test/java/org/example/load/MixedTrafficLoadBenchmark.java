@@ -0,0 +1,159 @@
+package org.example.load;
+
+import org.example.TestCaseApplication;
+import org.example.dto.BeerStyle;
+import org.example.entity.Beer;
+import org.example.entity.Employee;
+import org.example.repository.BeerRepository;
+import org.example.repository.EmployeeRepository;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Смешанная нагрузка на /beer, /employees, /design и /orders с заданной частотой на H2, без внешней инфраструктуры.
+ * Запуск: mvn test -Pbenchmark -Dtest=MixedTrafficLoadBenchmark -Dload.rate=200 -Dload.duration=PT60S
+ * -Dload.mix=beer:60,employees:20,design:15,orders:5
+ */
+@Tag("benchmark")
+class MixedTrafficLoadBenchmark {
+
+    private static final double RATE = Double.parseDouble(System.getProperty("load.rate", "100"));
+    private static final Duration WARMUP = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+    private static final Duration DURATION = Duration.parse(System.getProperty("load.duration", "PT30S"));
+    private static final String MIX = System.getProperty("load.mix", "beer:60,employees:20,design:15,orders:5");
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    @Test
+    void mixedTraffic() {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(TestCaseApplication.class)
+                .profiles("test")
+                .run("--server.port=0",
+                        "--spring.jpa.properties.hibernate.show_sql=false",
+                        "--logging.level.root=WARN")) {
+            seed(context.getBean(BeerRepository.class), context.getBean(EmployeeRepository.class));
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            URI base = URI.create("http://localhost:" + port);
+
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .followRedirects(HttpClient.Redirect.NEVER)
+                    .connectTimeout(TIMEOUT)
+                    .build();
+            LoadGenerator.Report report = new LoadGenerator(http, scenarios(base)).run(RATE, WARMUP, DURATION);
+            report.print(System.out);
+
+            assertThat(report.successes()).isPositive();
+        }
+    }
+
+    private List<LoadGenerator.Scenario> scenarios(URI base) {
+        List<LoadGenerator.Scenario> scenarios = new ArrayList<>();
+        for (String entry : MIX.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = Integer.parseInt(parts[1]);
+            LoadGenerator.Action action = switch (parts[0]) {
+                case "beer" -> http -> ok(http, get(base, "/beer?pageSize=25"));
+                case "employees" -> http -> ok(http, get(base, "/employees"));
+                case "design" -> http -> ok(http, get(base, "/design"));
+                case "orders" -> http -> placeOrder(http, base);
+                default -> throw new IllegalArgumentException("unknown endpoint in load.mix: " + parts[0]);
+            };
+            scenarios.add(new LoadGenerator.Scenario(parts[0], weight, action));
+        }
+        return scenarios;
+    }
+
+    /**
+     * Черновик заказа привязан к сессии: форма тако, затем форма доставки. Сессию открывает POST /design.
+     * Задержка - вся цепочка из трёх запросов.
+     */
+    private CompletableFuture<Boolean> placeOrder(HttpClient http, URI base) {
+        return http.sendAsync(get(base, "/design"), HttpResponse.BodyHandlers.discarding())
+                .thenCompose(design -> {
+                    if (design.statusCode() != 200) {
+                        return CompletableFuture.completedFuture(false);
+                    }
+                    String taco = "name=Load+taco+" + sequence.incrementAndGet() + "&ingredients=FLTO&ingredients=GRBF";
+                    return http.sendAsync(post(base, "/design", null, taco), HttpResponse.BodyHandlers.discarding())
+                            .thenCompose(designed -> {
+                                String cookie = sessionCookie(designed);
+                                return designed.statusCode() != 302 || cookie == null
+                                        ? CompletableFuture.completedFuture(false)
+                                        : ok(http, post(base, "/orders", cookie, "deliveryName=Load&deliveryStreet=Main+St"
+                                        + "&deliveryCity=Springfield&deliveryState=IL&deliveryZip=62701"
+                                        + "&ccNumber=4111111111111111&ccExpiration=12%2F29&ccCVV=123"));
+                            });
+                });
+    }
+
+    private static CompletableFuture<Boolean> ok(HttpClient http, HttpRequest request) {
+        return http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> response.statusCode() < 400);
+    }
+
+    private static HttpRequest get(URI base, String path) {
+        return HttpRequest.newBuilder(base.resolve(path)).timeout(TIMEOUT).GET().build();
+    }
+
+    private static HttpRequest post(URI base, String path, String cookie, String form) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(base.resolve(path))
+                .timeout(TIMEOUT)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form));
+        if (cookie != null) {
+            request.header("Cookie", cookie);
+        }
+        return request.build();
+    }
+
+    private static String sessionCookie(HttpResponse<?> response) {
+        return response.headers().allValues("Set-Cookie").stream()
+                .filter(value -> value.startsWith("JSESSIONID="))
+                .map(value -> value.substring(0, value.indexOf(';') < 0 ? value.length() : value.indexOf(';')))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private static void seed(BeerRepository beerRepository, EmployeeRepository employeeRepository) {
+        List<Beer> beers = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            beers.add(Beer.builder()
+                    .beerName("Beer " + i)
+                    .beerStyle(BeerStyle.PALE_ALE)
+                    .upc("0" + i)
+                    .quantityOnHand(10)
+                    .price(new BigDecimal("9.99"))
+                    .build());
+        }
+        beerRepository.saveAll(beers);
+
+        List<Employee> employees = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            employees.add(Employee.builder()
+                    .firstName("First" + i)
+                    .lastName("Last" + i)
+                    .email("employee" + i + "@example.org")
+                    .build());
+        }
+        employeeRepository.saveAll(employees);
+    }
+}
@@ -0,0 +1,40 @@
+package org.example.stats;
+
+import org.assertj.core.api.AbstractAssert;
+import org.example.service.stats.HandlerStatements;
+import org.example.service.stats.StatementStatistics;
+
+/**
+ * Бюджет SQL на метод контроллера:
+ * StatementBudget.assertThat(statementStatistics, "BeerController.listBeers").hasAtMostStatements(3)
+ */
+public class StatementBudget extends AbstractAssert<StatementBudget, HandlerStatements> {
+
+    private StatementBudget(HandlerStatements actual) {
+        super(actual, StatementBudget.class);
+    }
+
+    public static StatementBudget assertThat(StatementStatistics statementStatistics, String handler) {
+        HandlerStatements statements = statementStatistics.get(handler)
+                .orElseThrow(() -> new AssertionError("No requests recorded for " + handler));
+        return new StatementBudget(statements);
+    }
+
+    public StatementBudget hasAtMostStatements(long budget) {
+        isNotNull();
+        if (actual.maxStatements() > budget) {
+            failWithMessage("%s executed up to %d statements per request, budget is %d (%s)",
+                    actual.handler(), actual.maxStatements(), budget, actual);
+        }
+        return this;
+    }
+
+    public StatementBudget hasNoCollectionFetches() {
+        isNotNull();
+        if (actual.collectionFetches() > 0) {
+            failWithMessage("%s lazily fetched %d collections, possible N+1 (%s)",
+                    actual.handler(), actual.collectionFetches(), actual);
+        }
+        return this;
+    }
+}
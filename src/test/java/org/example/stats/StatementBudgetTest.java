@@ -0,0 +1,96 @@
+package org.example.stats;
+
+import org.example.dto.BeerStyle;
+import org.example.entity.Beer;
+import org.example.repository.BeerRepository;
+import org.example.service.stats.HandlerStatements;
+import org.example.service.stats.StatementStatistics;
+import org.example.service.stats.StatementStatisticsEndpoint;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.show_sql=false")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class StatementBudgetTest {
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    BeerRepository beerRepository;
+    @Autowired
+    StatementStatistics statementStatistics;
+    @Autowired
+    StatementStatisticsEndpoint statementStatisticsEndpoint;
+
+    @BeforeEach
+    void setUp() {
+        beerRepository.deleteAll();
+        List<Beer> beers = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            beers.add(Beer.builder()
+                    .beerName("Beer " + i)
+                    .beerStyle(BeerStyle.PALE_ALE)
+                    .upc("0" + i)
+                    .price(new BigDecimal("9.99"))
+                    .build());
+        }
+        beerRepository.saveAll(beers);
+        statementStatistics.reset();
+    }
+
+    @DisplayName("Beer listing stays within its statement budget for any page size")
+    @Test
+    void listBeersBudget() throws Exception {
+        mockMvc.perform(get("/beer").param("pageSize", "5")).andExpect(status().isOk());
+        mockMvc.perform(get("/beer").param("pageSize", "50")).andExpect(status().isOk());
+
+        StatementBudget.assertThat(statementStatistics, "BeerController.listBeers")
+                .hasAtMostStatements(2)
+                .hasNoCollectionFetches();
+        assertThat(statementStatistics.get("BeerController.listBeers")).get()
+                .extracting(HandlerStatements::requests).isEqualTo(2L);
+    }
+
+    @DisplayName("Design form and its @ModelAttribute method run no SQL")
+    @Test
+    void designFormBudget() throws Exception {
+        mockMvc.perform(get("/design")).andExpect(status().isOk());
+        mockMvc.perform(get("/design")).andExpect(status().isOk());
+
+        StatementBudget.assertThat(statementStatistics, "DesignController.showDesignForm")
+                .hasAtMostStatements(0);
+        // отметка выбранных чекбоксов конвертирует id через снимок, а не загрузкой сущностей
+        assertThat(statementStatistics.get("DesignController.showDesignForm")).get()
+                .extracting(HandlerStatements::entityLoads).isEqualTo(0L);
+    }
+
+    @DisplayName("Exceeding the budget fails the test and the endpoint lists the worst handler first")
+    @Test
+    void overBudget() throws Exception {
+        mockMvc.perform(get("/beer")).andExpect(status().isOk());
+        mockMvc.perform(get("/design")).andExpect(status().isOk());
+
+        assertThatThrownBy(() -> StatementBudget.assertThat(statementStatistics, "BeerController.listBeers")
+                .hasAtMostStatements(0))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("budget is 0");
+        assertThat(statementStatisticsEndpoint.worst(1)).extracting(HandlerStatements::handler)
+                .containsExactly("BeerController.listBeers");
+    }
+}
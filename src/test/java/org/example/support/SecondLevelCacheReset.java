@@ -0,0 +1,19 @@
+package org.example.support;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+
+/**
+ * Контексты тестов делят одну базу H2 и один JCache CacheManager на JVM, а create-drop каждого нового
+ * контекста пересоздаёт таблицы. Кэш второго уровня сбрасывается до CommandLineRunner-ов,
+ * иначе dataLoader увидит в кэше строки, которых в новой схеме уже нет.
+ */
+public class SecondLevelCacheReset implements ApplicationListener<ContextRefreshedEvent> {
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        event.getApplicationContext().getBeanProvider(EntityManagerFactory.class)
+                .ifAvailable(entityManagerFactory -> entityManagerFactory.getCache().evictAll());
+    }
+}
@@ -0,0 +1,72 @@
+package org.example.taco.controller;
+
+import org.example.entity.Ingredient;
+import org.example.entity.Ingredient.Type;
+import org.example.repository.IngredientRepository;
+import org.example.service.stats.HandlerStatements;
+import org.example.service.stats.StatementStatistics;
+import org.example.stats.StatementBudget;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.show_sql=false")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class DesignControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    IngredientRepository ingredientRepository;
+    @Autowired
+    StatementStatistics statementStatistics;
+
+    @BeforeEach
+    void setUp() {
+        ingredientRepository.saveAll(List.of(
+                new Ingredient("FLTO", "Flour Tortilla", Type.WRAP),
+                new Ingredient("GRBF", "Ground Beef", Type.PROTEIN),
+                new Ingredient("TMTO", "Diced Tomatoes", Type.VEGGIES),
+                new Ingredient("CHED", "Cheddar", Type.CHEESE),
+                new Ingredient("SLSA", "Salsa", Type.SAUCE)));
+        statementStatistics.reset();
+    }
+
+    @DisplayName("A five-ingredient taco binds without touching the database")
+    @Test
+    void bindsFromSnapshot() throws Exception {
+        mockMvc.perform(post("/design")
+                        .param("name", "Five Alarm")
+                        .param("ingredients", "FLTO", "GRBF", "TMTO", "CHED", "SLSA"))
+                .andExpect(redirectedUrl("/orders/current"));
+
+        StatementBudget.assertThat(statementStatistics, "DesignController.processTaco")
+                .hasAtMostStatements(0);
+        assertThat(statementStatistics.get("DesignController.processTaco")).get()
+                .extracting(HandlerStatements::entityLoads).isEqualTo(0L);
+    }
+
+    @DisplayName("An unknown ingredient id is a binding error on ingredients, not a silent null")
+    @Test
+    void unknownIngredient() throws Exception {
+        mockMvc.perform(post("/design")
+                        .param("name", "Mystery Taco")
+                        .param("ingredients", "FLTO", "XXXX"))
+                .andExpect(view().name("design"))
+                .andExpect(model().attributeHasFieldErrorCode("taco", "ingredients", "typeMismatch"));
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.taco.controller;
+
+import org.example.entity.Ingredient;
+import org.example.entity.Ingredient.Type;
+import org.example.entity.Taco;
+import org.example.entity.TacoOrder;
+import org.example.repository.IngredientRepository;
+import org.example.service.DraftOrderStore;
+import org.example.service.draft.CompactDraftOrderStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.flash;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.model;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.redirectedUrl;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.view;
+import static org.hamcrest.Matchers.containsString;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.show_sql=false")
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+class OrderControllerTest {
+
+    @Autowired
+    MockMvc mockMvc;
+    @Autowired
+    IngredientRepository ingredientRepository;
+    @Autowired
+    DraftOrderStore draftOrderStore;
+
+    @BeforeEach
+    void setUp() {
+        ingredientRepository.saveAll(List.of(
+                new Ingredient("FLTO", "Flour Tortilla", Type.WRAP),
+                new Ingredient("GRBF", "Ground Beef", Type.PROTEIN)));
+    }
+
+    @DisplayName("Tacos designed in a session reach the order form and the placed order; the session holds no draft")
+    @Test
+    void draftFlow() throws Exception {
+        assertThat(draftOrderStore).isInstanceOf(CompactDraftOrderStore.class);
+        MockHttpSession session = new MockHttpSession();
+
+        mockMvc.perform(post("/design").session(session)
+                        .param("name", "Beef Supreme")
+                        .param("ingredients", "FLTO", "GRBF"))
+                .andExpect(redirectedUrl("/orders/current"))
+                .andExpect(request().sessionAttributeDoesNotExist("tacoOrder"));
+
+        mockMvc.perform(get("/orders/current").session(session))
+                .andExpect(view().name("orderForm"))
+                .andExpect(content().string(containsString("Beef Supreme")));
+
+        // ошибка в форме доставки: тако остаются в форме и в черновике
+        mockMvc.perform(post("/orders").session(session).param("deliveryName", ""))
+                .andExpect(view().name("orderForm"))
+                .andExpect(model().attributeHasFieldErrors("tacoOrder", "deliveryName"))
+                .andExpect(content().string(containsString("Beef Supreme")));
+
+        mockMvc.perform(post("/orders").session(session)
+                        .param("deliveryName", "Jane Doe")
+                        .param("deliveryStreet", "1 Main St")
+                        .param("deliveryCity", "Springfield")
+                        .param("deliveryState", "IL")
+                        .param("deliveryZip", "62701")
+                        .param("ccNumber", "4111111111111111")
+                        .param("ccExpiration", "12/29")
+                        .param("ccCVV", "123"))
+                .andExpect(redirectedUrl("/"));
+
+        assertThat(draftOrderStore.load(session.getId()).getTacos()).isEmpty();
+    }
+
+    @DisplayName("An order without tacos is not placed and the customer is sent back to design")
+    @Test
+    void emptyDraftRedirectsToDesign() throws Exception {
+        mockMvc.perform(post("/orders").session(new MockHttpSession())
+                        .param("deliveryName", "Jane Doe")
+                        .param("deliveryStreet", "1 Main St")
+                        .param("deliveryCity", "Springfield")
+                        .param("deliveryState", "IL")
+                        .param("deliveryZip", "62701")
+                        .param("ccNumber", "4111111111111111")
+                        .param("ccExpiration", "12/29")
+                        .param("ccCVV", "123")
+                        .param("tacos[0].name", "Smuggled taco"))
+                .andExpect(redirectedUrl("/design"))
+                .andExpect(flash().attributeExists("orderError"));
+    }
+
+    @DisplayName("Drafts of different sessions do not mix")
+    @Test
+    void separateSessions() throws Exception {
+        MockHttpSession first = new MockHttpSession();
+        MockHttpSession second = new MockHttpSession();
+
+        mockMvc.perform(post("/design").session(first)
+                .param("name", "First taco")
+                .param("ingredients", "FLTO"));
+
+        TacoOrder draft = draftOrderStore.load(first.getId());
+        assertThat(draft.getTacos()).extracting(Taco::getName).containsExactly("First taco");
+        assertThat(draftOrderStore.load(second.getId()).getTacos()).isEmpty();
+    }
+}
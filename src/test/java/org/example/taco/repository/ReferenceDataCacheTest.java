@@ -0,0 +1,106 @@
+package org.example.taco.repository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.dto.BeerStyle;
+import org.example.entity.Beer;
+import org.example.entity.Category;
+import org.example.entity.Ingredient;
+import org.example.repository.BeerRepository;
+import org.example.repository.CategoryRepository;
+import org.example.repository.IngredientRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.show_sql=false")
+@ActiveProfiles("test")
+class ReferenceDataCacheTest {
+
+    @Autowired
+    IngredientRepository ingredientRepository;
+    @Autowired
+    CategoryRepository categoryRepository;
+    @Autowired
+    BeerRepository beerRepository;
+    @Autowired
+    EntityManagerFactory entityManagerFactory;
+    @Autowired
+    TransactionTemplate transactionTemplate;
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManagerFactory.getCache().evictAll();
+    }
+
+    @DisplayName("Repeated ingredient lookups and the taco form list run no SQL once cached")
+    @Test
+    void ingredientsFromCache() {
+        // база H2 общая для всех контекстов тестов, поэтому справочник не берётся на веру из dataLoader
+        ingredientRepository.save(new Ingredient("FLTO", "Flour Tortilla", Ingredient.Type.WRAP));
+        long ingredients = ingredientRepository.count();
+        ingredientRepository.findAll();
+        ingredientRepository.findById("FLTO");
+
+        statistics.clear();
+        for (int i = 0; i < 5; i++) {
+            assertThat(ingredientRepository.findAll()).hasSize((int) ingredients);
+            assertThat(ingredientRepository.findById("FLTO")).get()
+                    .extracting(Ingredient::getName).isEqualTo("Flour Tortilla");
+        }
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+        assertThat(statistics.getQueryCacheHitCount()).isEqualTo(5);
+        assertThat(statistics.getDomainDataRegionStatistics("ingredient").getHitCount()).isPositive();
+        assertThat(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tags("region", "ingredient", "result", "hit").functionCounter()).isNotNull();
+    }
+
+    @DisplayName("Categories of a beer come from the collection and entity regions on repeat reads")
+    @Test
+    void beerCategoriesFromCache() {
+        Category ale = categoryRepository.save(Category.builder().description("Ale").build());
+        UUID beerId = transactionTemplate.execute(status -> {
+            Beer beer = Beer.builder()
+                    .beerName("Cached Ale")
+                    .beerStyle(BeerStyle.PALE_ALE)
+                    .upc("0001")
+                    .price(new BigDecimal("9.99"))
+                    .build();
+            beer.getCategories().add(categoryRepository.getReferenceById(ale.getId()));
+            return beerRepository.save(beer).getBeerId();
+        });
+        categoryDescriptions(beerId);
+
+        statistics.clear();
+        for (int i = 0; i < 5; i++) {
+            assertThat(categoryRepository.findById(ale.getId())).isPresent();
+            assertThat(categoryDescriptions(beerId)).isEqualTo("Ale");
+        }
+
+        // загружается только само пиво, категории и связи - из кэша
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(5);
+        assertThat(statistics.getDomainDataRegionStatistics("beer-categories").getHitCount()).isEqualTo(5);
+    }
+
+    private String categoryDescriptions(UUID beerId) {
+        return transactionTemplate.execute(status -> beerRepository.findById(beerId).orElseThrow()
+                .getCategories().stream().map(Category::getDescription).findFirst().orElse(null));
+    }
+}
@@ -0,0 +1,166 @@
+package org.example.taco.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.entity.Ingredient;
+import org.example.entity.Ingredient.Type;
+import org.example.entity.Taco;
+import org.example.entity.TacoOrder;
+import org.example.repository.IngredientRepository;
+import org.example.service.draft.CompactDraftOrderStore;
+import org.example.service.ingredient.IngredientSnapshot;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CompactDraftOrderStoreTest {
+
+    private IngredientRepository ingredientRepository;
+    private IngredientSnapshot ingredientSnapshot;
+
+    @BeforeEach
+    void setUp() {
+        ingredientRepository = mock(IngredientRepository.class);
+        when(ingredientRepository.findAll()).thenReturn(List.of(
+                new Ingredient("FLTO", "Flour Tortilla", Type.WRAP),
+                new Ingredient("GRBF", "Ground Beef", Type.PROTEIN),
+                new Ingredient("CHED", "Cheddar", Type.CHEESE)));
+        ingredientSnapshot = new IngredientSnapshot(ingredientRepository);
+    }
+
+    @DisplayName("Draft keeps taco names and ingredients")
+    @Test
+    void roundTrip() {
+        CompactDraftOrderStore store = store(DataSize.ofMegabytes(1), Duration.ofMinutes(30));
+        TacoOrder draft = new TacoOrder();
+        draft.addTaco(taco("Beef Supreme", "FLTO", "GRBF", "CHED"));
+        draft.addTaco(taco("Plain wrap", "FLTO"));
+
+        store.save("session-1", draft);
+        TacoOrder loaded = store.load("session-1");
+
+        assertThat(loaded).isNotSameAs(draft);
+        assertThat(loaded.getTacos()).extracting(Taco::getName).containsExactly("Beef Supreme", "Plain wrap");
+        assertThat(loaded.getTacos().get(0).getIngredients()).extracting(Ingredient::getId)
+                .containsExactly("FLTO", "GRBF", "CHED");
+        assertThat(loaded.getTacos().get(0).getCreatedAt()).isEqualTo(draft.getTacos().get(0).getCreatedAt());
+        assertThat(loaded.getTacos().get(0).getIngredients().get(0))
+                .isSameAs(ingredientSnapshot.byId("FLTO").orElseThrow());
+        assertThat(store.load("session-2").getTacos()).isEmpty();
+
+        store.remove("session-1");
+        assertThat(store.load("session-1").getTacos()).isEmpty();
+    }
+
+    @DisplayName("A taco whose ingredient was removed after design is taken out of the draft and flagged")
+    @Test
+    void removedIngredientFlagsTaco() {
+        CompactDraftOrderStore store = store(DataSize.ofMegabytes(1), Duration.ofMinutes(30));
+        TacoOrder draft = new TacoOrder();
+        draft.addTaco(taco("Beef Supreme", "FLTO", "GRBF", "CHED"));
+        draft.addTaco(taco("Plain wrap", "FLTO"));
+        store.save("session-1", draft);
+
+        when(ingredientRepository.findAll()).thenReturn(List.of(
+                new Ingredient("FLTO", "Flour Tortilla", Type.WRAP),
+                new Ingredient("CHED", "Cheddar", Type.CHEESE)));
+        ingredientSnapshot.rebuild();
+        TacoOrder loaded = store.load("session-1");
+
+        assertThat(loaded.getTacos()).extracting(Taco::getName).containsExactly("Plain wrap");
+        assertThat(loaded.getUnavailableTacos()).containsExactly("Beef Supreme");
+    }
+
+    @DisplayName("A three-ingredient taco costs tens of bytes, and the byte cap evicts old drafts")
+    @Test
+    void boundedBySize() {
+        TacoOrder draft = new TacoOrder();
+        draft.addTaco(taco("Beef Supreme", "FLTO", "GRBF", "CHED"));
+        DataSize cap = DataSize.ofKilobytes(16);
+        CompactDraftOrderStore store = store(cap, Duration.ofMinutes(30));
+
+        store.save("session-0", draft);
+        // 128 байт служебных полей записи, ключ и сам черновик
+        assertThat(store.weightedSize()).isLessThan(256);
+
+        for (int i = 1; i < 1000; i++) {
+            store.save("session-" + i, draft);
+            // к первому черновику возвращаются, поэтому он не вытесняется
+            store.load("session-0");
+        }
+
+        assertThat(store.weightedSize()).isPositive().isLessThanOrEqualTo(cap.toBytes());
+        assertThat(store.size()).isLessThan(1000);
+        assertThat(store.load("session-999").getTacos()).hasSize(1);
+        assertThat(store.load("session-0").getTacos()).hasSize(1);
+        assertThat(store.load("session-1").getTacos()).isEmpty();
+    }
+
+    @DisplayName("Drafts not touched within the TTL expire")
+    @Test
+    void expiresAfterAccess() {
+        CompactDraftOrderStore store = store(DataSize.ofMegabytes(1), Duration.ofMillis(200));
+        TacoOrder draft = new TacoOrder();
+        draft.addTaco(taco("Plain wrap", "FLTO"));
+        store.save("session-1", draft);
+
+        // чтение само продлевает черновик, поэтому опрос реже ttl
+        await().atMost(Duration.ofSeconds(5)).pollInterval(Duration.ofMillis(300))
+                .until(() -> store.load("session-1").getTacos().isEmpty());
+        assertThat(store.weightedSize()).isZero();
+    }
+
+    @DisplayName("Concurrent updates of one draft keep every taco")
+    @Test
+    void concurrentUpdates() throws Exception {
+        CompactDraftOrderStore store = store(DataSize.ofMegabytes(1), Duration.ofMinutes(30));
+        int threads = 8;
+        int tacos = 25;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < tacos; i++) {
+                        Taco taco = taco("Taco " + thread + "-" + i, "FLTO");
+                        store.update("session-1", draft -> draft.addTaco(taco));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(store.load("session-1").getTacos()).hasSize(threads * tacos);
+    }
+
+    private CompactDraftOrderStore store(DataSize maximumSize, Duration ttl) {
+        return new CompactDraftOrderStore(ingredientSnapshot, new SimpleMeterRegistry(), maximumSize, ttl);
+    }
+
+    private Taco taco(String name, String... ingredientIds) {
+        Taco taco = new Taco();
+        taco.setName(name);
+        for (String id : ingredientIds) {
+            taco.addIngredient(ingredientSnapshot.byId(id).orElseThrow());
+        }
+        return taco;
+    }
+}
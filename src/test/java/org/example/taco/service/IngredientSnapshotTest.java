@@ -0,0 +1,67 @@
+package org.example.taco.service;
+
+import org.example.entity.Ingredient;
+import org.example.entity.Ingredient.Type;
+import org.example.repository.IngredientRepository;
+import org.example.service.ingredient.IngredientSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.show_sql=false")
+@ActiveProfiles("test")
+class IngredientSnapshotTest {
+
+    @Autowired
+    IngredientSnapshot ingredientSnapshot;
+    @Autowired
+    IngredientRepository ingredientRepository;
+
+    @BeforeEach
+    void setUp() {
+        ingredientRepository.save(new Ingredient("FLTO", "Flour Tortilla", Type.WRAP));
+        ingredientRepository.deleteById("PITA");
+    }
+
+    @AfterEach
+    void tearDown() {
+        ingredientRepository.deleteById("PITA");
+    }
+
+    @DisplayName("Snapshot partitions ingredients by type into immutable lists")
+    @Test
+    void partitionedByType() {
+        assertThat(ingredientSnapshot.byType()).containsOnlyKeys(Type.values());
+        assertThat(ingredientSnapshot.byType(Type.WRAP)).extracting(Ingredient::getId).contains("FLTO");
+        ingredientSnapshot.byType().forEach((type, ingredients) ->
+                assertThat(ingredients).allMatch(ingredient -> ingredient.getType() == type));
+
+        List<Ingredient> wraps = ingredientSnapshot.byType(Type.WRAP);
+        assertThatThrownBy(() -> wraps.add(new Ingredient("PITA", "Pita", Type.WRAP)))
+                .isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    @DisplayName("Saving or deleting an ingredient swaps in a new snapshot after commit")
+    @Test
+    void swappedOnChange() {
+        List<Ingredient> before = ingredientSnapshot.byType(Type.WRAP);
+
+        ingredientRepository.save(new Ingredient("PITA", "Pita", Type.WRAP));
+
+        assertThat(ingredientSnapshot.byType(Type.WRAP)).extracting(Ingredient::getId).contains("PITA");
+        assertThat(before).extracting(Ingredient::getId).doesNotContain("PITA");
+
+        ingredientRepository.deleteById("PITA");
+
+        assertThat(ingredientSnapshot.byType(Type.WRAP)).extracting(Ingredient::getId).doesNotContain("PITA");
+    }
+}
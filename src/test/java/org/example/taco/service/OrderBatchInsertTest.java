@@ -0,0 +1,84 @@
+package org.example.taco.service;
+
+import org.example.entity.Ingredient;
+import org.example.entity.Ingredient.Type;
+import org.example.entity.Taco;
+import org.example.entity.TacoOrder;
+import org.example.repository.IngredientRepository;
+import org.example.service.OrderService;
+import org.example.service.stats.HandlerStatements;
+import org.example.service.stats.StatementStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.show_sql=false")
+@ActiveProfiles("test")
+class OrderBatchInsertTest {
+
+    @Autowired
+    OrderService orderService;
+    @Autowired
+    IngredientRepository ingredientRepository;
+    @Autowired
+    StatementStatistics statementStatistics;
+
+    @BeforeEach
+    void setUp() {
+        ingredientRepository.save(new Ingredient("FLTO", "Flour Tortilla", Type.WRAP));
+        ingredientRepository.save(new Ingredient("CHED", "Cheddar", Type.CHEESE));
+        statementStatistics.reset();
+    }
+
+    @DisplayName("An order with 10 tacos is inserted with one JDBC batch per table")
+    @Test
+    void tacosInsertedInBatches() {
+        // пул на старте последовательности набирается за два обращения к ней, дальше id выдаются без SQL
+        orderService.placeOrder(order(1));
+        orderService.placeOrder(order(1));
+
+        HandlerStatements single = place("single", order(1));
+        HandlerStatements ten = place("ten", order(10));
+
+        // taco_order, taco, taco_ingredients, taco_order_tacos
+        assertThat(ten.statements()).isEqualTo(4).isEqualTo(single.statements());
+        assertThat(ten.entityLoads()).isZero();
+    }
+
+    private HandlerStatements place(String handler, TacoOrder order) {
+        statementStatistics.begin(handler);
+        try {
+            orderService.placeOrder(order);
+        } finally {
+            statementStatistics.end();
+        }
+        assertThat(order.getId()).isNotNull();
+        assertThat(order.getTacos()).allMatch(taco -> taco.getId() != null);
+        return statementStatistics.get(handler).orElseThrow();
+    }
+
+    private TacoOrder order(int tacos) {
+        TacoOrder order = new TacoOrder();
+        order.setDeliveryName("Jane Doe");
+        order.setDeliveryStreet("1 Main St");
+        order.setDeliveryCity("Springfield");
+        order.setDeliveryState("IL");
+        order.setDeliveryZip("62701");
+        order.setCcNumber("4111111111111111");
+        order.setCcExpiration("12/29");
+        order.setCcCVV("123");
+        for (int i = 0; i < tacos; i++) {
+            Taco taco = new Taco();
+            taco.setName("Cheesy wrap " + i);
+            taco.addIngredient(ingredientRepository.getReferenceById("FLTO"));
+            taco.addIngredient(ingredientRepository.getReferenceById("CHED"));
+            order.addTaco(taco);
+        }
+        return order;
+    }
+}
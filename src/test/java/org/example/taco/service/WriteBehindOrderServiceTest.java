@@ -0,0 +1,207 @@
+package org.example.taco.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.example.entity.Ingredient;
+import org.example.entity.Ingredient.Type;
+import org.example.entity.Taco;
+import org.example.entity.TacoOrder;
+import org.example.repository.IngredientRepository;
+import org.example.repository.OrderRepository;
+import org.example.service.OrderService;
+import org.example.service.order.OrderJournal;
+import org.example.service.order.OrderJournalEntry;
+import org.example.service.order.WriteBehindOrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+@SpringBootTest(properties = {
+        "spring.jpa.properties.hibernate.show_sql=false",
+        "taco.orders.write-behind.enabled=true",
+        "taco.orders.write-behind.max-delay=PT0.05S"
+})
+@ActiveProfiles("test")
+class WriteBehindOrderServiceTest {
+
+    @Autowired
+    OrderService orderService;
+    @Autowired
+    OrderRepository orderRepository;
+    @Autowired
+    IngredientRepository ingredientRepository;
+    @Autowired
+    PlatformTransactionManager transactionManager;
+    @Autowired
+    ObjectMapper objectMapper;
+
+    @DynamicPropertySource
+    static void journalDir(DynamicPropertyRegistry registry) throws IOException {
+        Path directory = Files.createTempDirectory("order-journal");
+        registry.add("taco.orders.write-behind.journal-dir", directory::toString);
+    }
+
+    @BeforeEach
+    void setUp() {
+        ingredientRepository.save(new Ingredient("FLTO", "Flour Tortilla", Type.WRAP));
+        ingredientRepository.save(new Ingredient("CHED", "Cheddar", Type.CHEESE));
+    }
+
+    @DisplayName("Submitted orders are acknowledged from the journal and written to the database once")
+    @Test
+    void writtenBehind() {
+        assertThat(orderService).isInstanceOf(WriteBehindOrderService.class);
+        List<TacoOrder> orders = List.of(order(), order(), order());
+
+        orders.forEach(orderService::placeOrder);
+
+        List<UUID> submissionIds = orders.stream().map(TacoOrder::getSubmissionId).toList();
+        await().atMost(Duration.ofSeconds(10)).untilAsserted(() ->
+                assertThat(orderRepository.findExistingSubmissionIds(submissionIds))
+                        .containsExactlyInAnyOrderElementsOf(submissionIds));
+        await().atMost(Duration.ofSeconds(10))
+                .until(() -> ((WriteBehindOrderService) orderService).pending() == 0);
+    }
+
+    @DisplayName("Replay after a crash skips orders already in the database and drops a torn tail")
+    @Test
+    void replayAfterCrash(@TempDir Path directory) throws Exception {
+        TacoOrder persisted = order();
+        persisted.setSubmissionId(UUID.randomUUID());
+        orderRepository.save(OrderJournalEntry.of(persisted).toOrder(ingredientRepository::getReferenceById));
+        TacoOrder lost = order();
+        lost.setSubmissionId(UUID.randomUUID());
+
+        try (OrderJournal journal = new OrderJournal(directory)) {
+            journal.append(objectMapper.writeValueAsBytes(OrderJournalEntry.of(persisted)));
+            journal.append(objectMapper.writeValueAsBytes(OrderJournalEntry.of(lost)));
+        }
+        // процесс упал посреди следующей записи: заголовок есть, данных нет
+        Files.write(directory.resolve("orders.journal"), new byte[]{0, 0, 1, 0, 7},
+                StandardOpenOption.APPEND);
+
+        WriteBehindOrderService restarted = new WriteBehindOrderService(orderRepository, ingredientRepository,
+                transactionManager, objectMapper, new SimpleMeterRegistry(), directory, 100,
+                Duration.ofMillis(50), Duration.ofMillis(50));
+        restarted.start();
+        try {
+            await().atMost(Duration.ofSeconds(10)).until(() -> restarted.pending() == 0
+                    && Files.size(directory.resolve("orders.journal")) == 0);
+        } finally {
+            restarted.stop();
+        }
+
+        assertThat(orderRepository.findExistingSubmissionIds(List.of(persisted.getSubmissionId(), lost.getSubmissionId())))
+                .containsExactlyInAnyOrder(persisted.getSubmissionId(), lost.getSubmissionId());
+        try (OrderJournal journal = new OrderJournal(directory)) {
+            assertThat(journal.replay()).isEmpty();
+        }
+    }
+
+    @DisplayName("An order failing validation on replay is rejected instead of blocking the queue")
+    @Test
+    void invalidOrderRejected(@TempDir Path directory) throws Exception {
+        TacoOrder invalid = order();
+        invalid.setSubmissionId(UUID.randomUUID());
+        invalid.setDeliveryName("");
+        TacoOrder valid = order();
+        valid.setSubmissionId(UUID.randomUUID());
+
+        try (OrderJournal journal = new OrderJournal(directory)) {
+            journal.append(objectMapper.writeValueAsBytes(OrderJournalEntry.of(invalid)));
+            journal.append(objectMapper.writeValueAsBytes(OrderJournalEntry.of(valid)));
+        }
+
+        WriteBehindOrderService restarted = new WriteBehindOrderService(orderRepository, ingredientRepository,
+                transactionManager, objectMapper, new SimpleMeterRegistry(), directory, 100,
+                Duration.ofMillis(50), Duration.ofMillis(50));
+        restarted.start();
+        try {
+            await().atMost(Duration.ofSeconds(10)).until(() -> restarted.pending() == 0
+                    && Files.size(directory.resolve("orders.journal")) == 0);
+        } finally {
+            restarted.stop();
+        }
+
+        assertThat(orderRepository.findExistingSubmissionIds(List.of(invalid.getSubmissionId(), valid.getSubmissionId())))
+                .containsExactly(valid.getSubmissionId());
+        assertThat(Files.readString(directory.resolve("orders.rejected")))
+                .contains(invalid.getSubmissionId().toString());
+    }
+
+    @DisplayName("Concurrent appends share fsyncs, and the CVV never reaches the journal")
+    @Test
+    void groupCommit(@TempDir Path directory) throws Exception {
+        byte[] payload = objectMapper.writeValueAsBytes(OrderJournalEntry.of(order()));
+        assertThat(new String(payload, StandardCharsets.UTF_8)).doesNotContainIgnoringCase("cvv");
+
+        int threads = 8;
+        int appends = 50;
+        List<Long> offsets = new CopyOnWriteArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (OrderJournal journal = new OrderJournal(directory)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < appends; i++) {
+                        long offset = journal.append(payload, offsets::add);
+                        assertThat(offsets).contains(offset);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+
+            assertThat(offsets).hasSize(threads * appends).isSorted().doesNotHaveDuplicates();
+            assertThat(offsets.get(offsets.size() - 1)).isEqualTo(journal.size());
+            assertThat(journal.replay()).hasSize(threads * appends);
+            assertThat(journal.syncs()).isPositive().isLessThanOrEqualTo(threads * appends);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private TacoOrder order() {
+        Taco taco = new Taco();
+        taco.setName("Cheesy wrap");
+        taco.addIngredient(ingredientRepository.getReferenceById("FLTO"));
+        taco.addIngredient(ingredientRepository.getReferenceById("CHED"));
+        TacoOrder order = new TacoOrder();
+        order.setDeliveryName("Jane Doe");
+        order.setDeliveryStreet("1 Main St");
+        order.setDeliveryCity("Springfield");
+        order.setDeliveryState("IL");
+        order.setDeliveryZip("62701");
+        order.setCcNumber("4111111111111111");
+        order.setCcExpiration("12/29");
+        order.setCcCVV("123");
+        order.addTaco(taco);
+        return order;
+    }
+}